@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Startup-optimised launch (Spring AOT + CDS) and a repeatable cold-start measurement.
+#
+#   scripts/startup.sh build            package with -Paot, extract the jar and record a CDS archive
+#   scripts/startup.sh measure [runs]   median startup time: plain, "startup" profile only, profile + AOT + CDS
+#
+# The datasource comes from the usual SPRING_DATASOURCE_URL/USERNAME/PASSWORD environment variables.
+# EXTRA_CLASSPATH can add a different JDBC driver. The database must be reachable for the CDS training run
+# too, because Flyway migrates during context refresh.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+OUT=target/startup
+JAR=$OUT/sb-ecom-0.0.1-SNAPSHOT.jar
+CLASSPATH_ARG=$JAR${EXTRA_CLASSPATH:+:$EXTRA_CLASSPATH}
+MAIN=com.ecommerce.project.SbEcomApplication
+PROFILE=(-Dspring.profiles.active=startup)
+OPTIMISED=(-XX:SharedArchiveFile=$OUT/application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=startup)
+
+build() {
+    sh mvnw -B -q -Paot -DskipTests package
+    rm -rf "$OUT"
+    java -Djarmode=tools -jar target/sb-ecom-0.0.1-SNAPSHOT.jar extract --destination "$OUT"
+    # Training run: load every class the application needs up to refresh, then dump them into the archive.
+    java -XX:ArchiveClassesAtExit=$OUT/application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=startup \
+        -Dspring.context.exit=onRefresh -cp "$CLASSPATH_ARG" $MAIN > $OUT/training.log 2>&1
+}
+
+# Prints the "process running for" figure Spring Boot logs once the application is ready.
+start_once() {
+    local log=$OUT/run.log
+    rm -f $log
+    java "$@" -Dserver.port=0 -cp "$CLASSPATH_ARG" $MAIN > $log 2>&1 &
+    local pid=$!
+    until grep -qs "Started SbEcomApplication" $log; do
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "application failed to start, see $log" >&2
+            exit 1
+        fi
+        sleep 0.1
+    done
+    kill $pid
+    wait $pid 2>/dev/null || true
+    grep -o "process running for [0-9.]*" $log | awk '{print $4}'
+}
+
+measure() {
+    local label=$1 runs=$2
+    shift 2
+    for _ in $(seq "$runs"); do
+        start_once "$@"
+    done | sort -n | awk -v label="$label" '{ t[NR] = $1 } END { printf "%-10s median %.3fs  min %.3fs  max %.3fs  (%d runs)\n", label, t[int((NR + 1) / 2)], t[1], t[NR], NR }'
+}
+
+case "${1:-}" in
+    build)
+        build
+        ;;
+    measure)
+        runs=${2:-5}
+        measure plain "$runs"
+        measure profile "$runs" "${PROFILE[@]}"
+        measure optimised "$runs" "${OPTIMISED[@]}"
+        ;;
+    *)
+        echo "usage: $0 build | measure [runs]" >&2
+        exit 2
+        ;;
+esac
@@ -1,14 +1,57 @@
 package com.ecommerce.project.config;
 
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
+@EnableAsync
+@EnableScheduling
 public class AppConfig {
+    private static final Logger logger = LoggerFactory.getLogger(AppConfig.class);
 
     @Bean
     public ModelMapper modelMapper() {
         return new ModelMapper();
     }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Not a default candidate, so Boot still auto-configures applicationTaskExecutor (virtual when enabled) for plain @Async.
+    @Bean(defaultCandidate = false)
+    public ThreadPoolTaskExecutor imageVariantExecutor(@Value("${project.image.variants.threads}") int threads,
+                                                       @Value("${project.image.variants.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        // Never push resize work back onto the uploading request thread.
+        executor.setRejectedExecutionHandler((task, pool) ->
+                logger.warn("Image variant queue is full, originals will be served instead"));
+        return executor;
+    }
+
+    // The recommendation and autocomplete rebuilds scan whole tables. Run on the shared scheduler they would hold up
+    // the short jobs (the flash-sale flush every 100ms), which under the virtual profile run one fixed-delay task at
+    // a time, so they get their own threads. Not a default candidate, so Boot still auto-configures taskScheduler.
+    @Bean(defaultCandidate = false)
+    public ThreadPoolTaskScheduler rebuildScheduler(@Value("${project.rebuild.threads}") int threads) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("rebuild-");
+        scheduler.setPoolSize(threads);
+        return scheduler;
+    }
 }
@@ -0,0 +1,68 @@
+package com.ecommerce.project.config;
+
+import com.ecommerce.project.model.AppRole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+public class DataSeeder {
+    private static final List<SeedUser> USERS = List.of(
+            new SeedUser("user1", "user1@example.com", "password1", List.of(AppRole.ROLE_USER)),
+            new SeedUser("seller1", "seller1@example.com", "password2", List.of(AppRole.ROLE_SELLER)),
+            new SeedUser("admin", "admin@example.com", "adminPass",
+                    List.of(AppRole.ROLE_USER, AppRole.ROLE_SELLER, AppRole.ROLE_ADMIN)));
+
+    private static final String INSERT_ROLE =
+            "INSERT INTO roles (role_name) VALUES (?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_USER =
+            "INSERT INTO users (username, email, password) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_USER_ROLE =
+            "INSERT INTO user_role (user_id, role_id) " +
+            "SELECT u.user_id, r.role_id FROM users u, roles r WHERE u.username = ? AND r.role_name = ? " +
+            "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Transactional
+    public void seed() {
+        jdbcTemplate.batchUpdate(INSERT_ROLE, Arrays.stream(AppRole.values())
+                .map(role -> new Object[]{role.name()})
+                .toList());
+
+        // BCrypt is deliberately slow, so only hash passwords for users that are actually missing.
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT username FROM users WHERE username IN (" + String.join(", ", Collections.nCopies(USERS.size(), "?")) + ")",
+                String.class, USERS.stream().map(SeedUser::username).toArray()));
+        List<Object[]> users = new ArrayList<>();
+        for (SeedUser user : USERS) {
+            if (!existing.contains(user.username())) {
+                users.add(new Object[]{user.username(), user.email(), passwordEncoder.encode(user.password())});
+            }
+        }
+        if (!users.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER, users);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, USERS.stream()
+                .flatMap(user -> user.roles().stream().map(role -> new Object[]{user.username(), role.name()}))
+                .toList());
+    }
+
+    private record SeedUser(String username, String email, String password, List<AppRole> roles) {
+    }
+}
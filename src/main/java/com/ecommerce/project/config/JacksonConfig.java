@@ -0,0 +1,33 @@
+package com.ecommerce.project.config;
+
+import com.ecommerce.project.payload.APIResponse;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.ProductResponse;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class JacksonConfig {
+    private static final List<Class<?>> RESPONSE_TYPES = List.of(
+            ProductResponse.class, CategoryResponse.class, CartDTO.class, APIResponse.class);
+
+    // Replaces reflective getter calls with generated lambdas; picked up by Boot's ObjectMapper like any Module bean.
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // writerFor resolves and caches the serializers in the shared ObjectMapper, so the first catalog and cart
+    // requests do not pay for bean introspection and accessor generation.
+    @Bean
+    public SmartInitializingSingleton jsonWriterWarmup(ObjectMapper objectMapper) {
+        return () -> RESPONSE_TYPES.forEach(objectMapper::writerFor);
+    }
+}
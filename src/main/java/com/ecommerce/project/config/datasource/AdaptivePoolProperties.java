@@ -0,0 +1,21 @@
+package com.ecommerce.project.config.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "project.datasource.adaptive-pool")
+public class AdaptivePoolProperties {
+    private boolean enabled = false;
+    private int minSize = 5;
+    private int maxSize = 30;
+    private int step = 2;
+    private Duration interval = Duration.ofSeconds(15);
+    private Duration growAboveWait = Duration.ofMillis(5);
+    private Duration shrinkBelowWait = Duration.ofNanos(500_000);
+    private int shrinkAfterIntervals = 4;
+}
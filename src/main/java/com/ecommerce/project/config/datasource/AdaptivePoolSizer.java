@@ -0,0 +1,92 @@
+package com.ecommerce.project.config.datasource;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(prefix = "project.datasource.adaptive-pool", name = "enabled", havingValue = "true")
+public class AdaptivePoolSizer {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final AdaptivePoolProperties properties;
+
+    private long lastCount;
+    private double lastTotalNanos;
+    private int quietIntervals;
+
+    public AdaptivePoolSizer(DataSource dataSource, MeterRegistry meterRegistry,
+                             AdaptivePoolProperties properties) throws SQLException {
+        this.dataSource = dataSource.unwrap(HikariDataSource.class);
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        if (properties.getMinSize() < 1 || properties.getMaxSize() < properties.getMinSize()) {
+            throw new IllegalStateException("Adaptive pool bounds must satisfy 1 <= min-size <= max-size");
+        }
+        HikariConfigMXBean config = this.dataSource.getHikariConfigMXBean();
+        int start = Math.clamp(config.getMaximumPoolSize(), properties.getMinSize(), properties.getMaxSize());
+        // Connections above minimum-idle are retired by Hikari's idle timeout, which is what lets the pool shrink.
+        config.setMinimumIdle(Math.min(config.getMinimumIdle(), properties.getMinSize()));
+        config.setMaximumPoolSize(start);
+    }
+
+    @Scheduled(fixedDelayString = "${project.datasource.adaptive-pool.interval}")
+    public void resize() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire")
+                .tag("pool", dataSource.getPoolName())
+                .timer();
+        if (pool == null || acquire == null) {
+            return;
+        }
+
+        long count = acquire.count();
+        double totalNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+        long acquired = count - lastCount;
+        double meanWaitNanos = acquired > 0 ? (totalNanos - lastTotalNanos) / acquired : 0;
+        lastCount = count;
+        lastTotalNanos = totalNanos;
+
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        int current = config.getMaximumPoolSize();
+        int pending = pool.getThreadsAwaitingConnection();
+
+        if (pending > 0 || meanWaitNanos > properties.getGrowAboveWait().toNanos()) {
+            quietIntervals = 0;
+            apply(config, current, Math.min(properties.getMaxSize(), current + properties.getStep()), meanWaitNanos, pending);
+            return;
+        }
+
+        boolean underused = pool.getActiveConnections() <= current - properties.getStep();
+        if (meanWaitNanos < properties.getShrinkBelowWait().toNanos() && underused) {
+            if (++quietIntervals >= properties.getShrinkAfterIntervals()) {
+                quietIntervals = 0;
+                apply(config, current, Math.max(properties.getMinSize(), current - properties.getStep()), meanWaitNanos, pending);
+            }
+        } else {
+            quietIntervals = 0;
+        }
+    }
+
+    private void apply(HikariConfigMXBean config, int current, int target, double meanWaitNanos, int pending) {
+        if (target == current) {
+            return;
+        }
+        config.setMaximumPoolSize(target);
+        logger.info("Resized pool {} from {} to {} (mean acquire wait {} us, {} threads waiting)",
+                dataSource.getPoolName(), current, target, Math.round(meanWaitNanos / 1_000), pending);
+    }
+}
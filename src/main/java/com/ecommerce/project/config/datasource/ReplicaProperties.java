@@ -0,0 +1,28 @@
+package com.ecommerce.project.config.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "project.datasource.replicas")
+public class ReplicaProperties {
+    private boolean enabled = false;
+    private List<Target> targets = new ArrayList<>();
+    private int maximumPoolSize = 10;
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration validationTimeout = Duration.ofSeconds(1);
+
+    @Data
+    public static class Target {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.project.config.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Runs first so statements issued by the security filters (user lookup from the JWT) are counted too.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlInspectionFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(SqlInspectionFilter.class);
+    private static final int MAX_SQL_LENGTH = 300;
+
+    private final SqlInspectionProperties properties;
+
+    public SqlInspectionFilter(SqlInspectionProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementRecorder.Recording recording = SqlStatementRecorder.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recording.close();
+            report(request, recording);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementRecorder.Recording recording) {
+        Map<String, Integer> repeated = recording.repeated(properties.getRepeatThreshold());
+        if (repeated.isEmpty() && recording.count() <= properties.getMaxStatements()) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        if (repeated.isEmpty()) {
+            logger.warn("{} ran {} SQL statements", endpoint, recording.count());
+            return;
+        }
+        repeated.forEach((sql, times) -> logger.warn("Possible N+1 on {}: {} of {} SQL statements were {}",
+                endpoint, times, recording.count(), abbreviate(sql)));
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+}
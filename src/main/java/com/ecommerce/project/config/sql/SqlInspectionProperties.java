@@ -0,0 +1,14 @@
+package com.ecommerce.project.config.sql;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "project.sql-inspection")
+public class SqlInspectionProperties {
+    private boolean enabled = true;
+    private int repeatThreshold = 3;
+    private int maxStatements = 20;
+}
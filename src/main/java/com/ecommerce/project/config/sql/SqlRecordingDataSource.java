@@ -0,0 +1,69 @@
+package com.ecommerce.project.config.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+// Records SQL where it reaches the driver, so Hibernate, JdbcTemplate and anything else on the connection are
+// counted alike. A statement is recorded once when it is prepared, however often it is executed in a batch.
+public class SqlRecordingDataSource extends DelegatingDataSource {
+    private static final Set<String> PREPARE = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+            "addBatch");
+
+    public SqlRecordingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recording(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recording(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection recording(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            if (PREPARE.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                SqlStatementRecorder.record(sql);
+            }
+            Object result = invoke(connection, method, args);
+            return result instanceof Statement statement && method.getName().equals("createStatement")
+                    ? recording(statement)
+                    : result;
+        });
+    }
+
+    private static Statement recording(Statement statement) {
+        return proxy(Statement.class, statement, (proxy, method, args) -> {
+            if (EXECUTE.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                SqlStatementRecorder.record(sql);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlRecordingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
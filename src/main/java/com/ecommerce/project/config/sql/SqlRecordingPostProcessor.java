@@ -0,0 +1,22 @@
+package com.ecommerce.project.config.sql;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Wraps only the data source the application uses, whether Boot's pool or the replica routing proxy, so a
+// statement is never counted by two layers.
+@Component
+public class SqlRecordingPostProcessor implements BeanPostProcessor {
+    private static final String DATA_SOURCE = "dataSource";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                && !(bean instanceof SqlRecordingDataSource)) {
+            return new SqlRecordingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.project.config.sql;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// SqlRecordingDataSource sees every statement on the thread that runs it, so a thread local scope sees exactly the
+// SQL of the current request. Hibernate and JdbcTemplate bind parameters as ?, which makes the statement text its
+// shape: the same text many times in one request is the N+1 signature.
+public final class SqlStatementRecorder {
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    public static Recording start() {
+        Recording recording = new Recording(CURRENT.get());
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    static void record(String sql) {
+        for (Recording recording = CURRENT.get(); recording != null; recording = recording.parent) {
+            recording.add(sql);
+        }
+    }
+
+    public static final class Recording implements AutoCloseable {
+        private final Recording parent;
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private int count;
+
+        private Recording(Recording parent) {
+            this.parent = parent;
+        }
+
+        private void add(String sql) {
+            count++;
+            shapes.merge(sql, 1, Integer::sum);
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public Map<String, Integer> repeated(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            shapes.entrySet().stream()
+                    .filter(shape -> shape.getValue() >= threshold)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .forEach(shape -> repeated.put(shape.getKey(), shape.getValue()));
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.payload.SuggestionDTO;
+import com.ecommerce.project.service.AutocompleteService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@AllArgsConstructor
+public class AutocompleteController {
+    private static final int MAX_LIMIT = 20;
+    private static final int MAX_PREFIX_LENGTH = 100;
+
+    private AutocompleteService autocompleteService;
+
+    @GetMapping("/public/autocomplete")
+    public ResponseEntity<List<SuggestionDTO>> autocomplete(@RequestParam String prefix,
+                                                            @RequestParam(defaultValue = "10") Integer limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new APIException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (prefix.length() > MAX_PREFIX_LENGTH) {
+            throw new APIException("Prefix must be at most " + MAX_PREFIX_LENGTH + " characters");
+        }
+        return new ResponseEntity<>(autocompleteService.suggest(prefix, limit), HttpStatus.OK);
+    }
+}
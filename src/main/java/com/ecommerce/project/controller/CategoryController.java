@@ -11,6 +11,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @AllArgsConstructor
 @RestController
 @RequestMapping("/api")
@@ -29,6 +31,12 @@ public class CategoryController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping("/public/categories/{categoryId}/subcategories")
+    public ResponseEntity<List<CategoryDTO>> getSubcategories(@PathVariable Long categoryId) {
+        List<CategoryDTO> response = categoryService.getSubcategories(categoryId);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @PostMapping("/admin/categories")
     public ResponseEntity<CategoryDTO> addCategory(@Valid @RequestBody CategoryDTO categoryDTO) {
         CategoryDTO response = categoryService.createCategory(categoryDTO);
@@ -41,6 +49,14 @@ public class CategoryController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    // Without parentId the category becomes a root.
+    @PutMapping("/admin/categories/{categoryId}/parent")
+    public ResponseEntity<CategoryDTO> moveCategory(@PathVariable Long categoryId,
+                                                    @RequestParam(required = false) Long parentId) {
+        CategoryDTO response = categoryService.moveCategory(categoryId, parentId);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @DeleteMapping("/admin/categories/{categoryId}")
     public ResponseEntity<CategoryDTO> deleteCategory(@PathVariable Long categoryId) {
         CategoryDTO response = categoryService.deleteCategory(categoryId);
@@ -0,0 +1,24 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.service.OrderService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+@AllArgsConstructor
+public class OrderController {
+    OrderService orderService;
+
+    @PostMapping("/order/checkout")
+    public ResponseEntity<OrderDTO> checkout(@RequestHeader("Idempotency-Key") String checkoutKey) {
+        OrderDTO order = orderService.placeOrder(checkoutKey);
+        return new ResponseEntity<>(order, HttpStatus.CREATED);
+    }
+}
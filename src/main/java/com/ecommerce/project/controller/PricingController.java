@@ -0,0 +1,32 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.RepricingResponse;
+import com.ecommerce.project.service.PricingService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api")
+@AllArgsConstructor
+public class PricingController {
+
+    private PricingService pricingService;
+
+    @PutMapping("/admin/categories/{categoryId}/discount")
+    public ResponseEntity<RepricingResponse> discountCategory(@PathVariable Long categoryId,
+                                                              @RequestParam double discount) {
+        RepricingResponse response = pricingService.discountCategory(categoryId, discount);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PutMapping(value = "/admin/products/discounts", consumes = "text/csv")
+    public ResponseEntity<RepricingResponse> discountProducts(HttpServletRequest request) throws IOException {
+        RepricingResponse response = pricingService.discountProducts(request.getInputStream());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
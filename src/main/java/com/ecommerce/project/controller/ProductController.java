@@ -4,9 +4,11 @@ import com.ecommerce.project.config.AppConstants;
 import com.ecommerce.project.payload.ProductDTO;
 import com.ecommerce.project.payload.ProductResponse;
 import com.ecommerce.project.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -31,15 +33,22 @@ public class ProductController {
         return new ResponseEntity<>(productResponse, HttpStatus.OK);
     }
 
+    @GetMapping("/public/products/{productId}")
+    public ResponseEntity<ProductDTO> getProduct(@PathVariable Long productId) {
+        ProductDTO productDTO = productService.getProduct(productId);
+        return new ResponseEntity<>(productDTO, HttpStatus.OK);
+    }
+
     @GetMapping("/public/categories/{categoryId}/products")
     public ResponseEntity<ProductResponse> getProductsByCategory(
             @PathVariable Long categoryId,
+            @RequestParam(name = "includeDescendants", defaultValue = "false", required = false) boolean includeDescendants,
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
             @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder
     ) {
-        ProductResponse productResponse = productService.searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder);
+        ProductResponse productResponse = productService.searchByCategory(categoryId, includeDescendants, pageNumber, pageSize, sortBy, sortOrder);
         return new ResponseEntity<>(productResponse, HttpStatus.OK);
     }
 
@@ -75,10 +84,25 @@ public class ProductController {
         return new ResponseEntity<>(responseDTO, HttpStatus.OK);
     }
 
+    @PutMapping("/admin/products/{productId}/flash-sale")
+    public ResponseEntity<ProductDTO> updateFlashSale(@PathVariable Long productId,
+                                                      @RequestParam boolean enabled) {
+        ProductDTO responseDTO = productService.updateFlashSale(productId, enabled);
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
+
     @PutMapping("/admin/products/{productId}/image")
     public ResponseEntity<ProductDTO> addImage(@PathVariable Long productId,
                                                @RequestParam("image") MultipartFile image) throws IOException {
         ProductDTO responseDTO = productService.updateProductImage(productId, image);
         return new ResponseEntity<>(responseDTO, HttpStatus.OK);
     }
+
+    @PutMapping(value = "/admin/products/{productId}/image",
+            consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE, "image/webp"})
+    public ResponseEntity<ProductDTO> uploadImage(@PathVariable Long productId,
+                                                  HttpServletRequest request) throws IOException {
+        ProductDTO responseDTO = productService.updateProductImage(productId, request.getInputStream());
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
 }
@@ -0,0 +1,30 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.payload.RecommendationDTO;
+import com.ecommerce.project.service.RecommendationService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@AllArgsConstructor
+public class RecommendationController {
+    private static final int MAX_LIMIT = 50;
+
+    private RecommendationService recommendationService;
+
+    @GetMapping("/public/products/{productId}/recommendations")
+    public ResponseEntity<List<RecommendationDTO>> getRecommendations(@PathVariable Long productId,
+                                                                      @RequestParam(defaultValue = "10") Integer limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new APIException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<RecommendationDTO> recommendations = recommendationService.getRecommendations(productId, limit);
+        return new ResponseEntity<>(recommendations, HttpStatus.OK);
+    }
+}
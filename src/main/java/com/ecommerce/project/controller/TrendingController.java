@@ -0,0 +1,29 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.payload.TrendingProductDTO;
+import com.ecommerce.project.service.TrendingService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@AllArgsConstructor
+public class TrendingController {
+    private static final int MAX_LIMIT = 50;
+
+    private TrendingService trendingService;
+
+    @GetMapping("/public/products/trending")
+    public ResponseEntity<List<TrendingProductDTO>> getTrending(@RequestParam(defaultValue = "10") Integer limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new APIException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<TrendingProductDTO> trending = trendingService.getTrending(limit);
+        return new ResponseEntity<>(trending, HttpStatus.OK);
+    }
+}
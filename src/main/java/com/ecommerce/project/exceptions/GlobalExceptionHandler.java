@@ -1,12 +1,20 @@
 package com.ecommerce.project.exceptions;
 
 import com.ecommerce.project.payload.APIResponse;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -14,6 +22,7 @@ import java.util.Map;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private static final String CHECKOUT_KEY_CONSTRAINT = "uk_orders_user_checkout_key";
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleMethodArgumentNotValidException(MethodArgumentNotValidException e) {
@@ -37,4 +46,46 @@ public class GlobalExceptionHandler {
         APIResponse response = new APIResponse(e.getMessage(), false);
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<APIResponse> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException e) {
+        String message = e.getMaxUploadSize() > 0
+                ? "Upload exceeds the maximum size of " + e.getMaxUploadSize() + " bytes"
+                : "Upload exceeds the maximum allowed size";
+        APIResponse response = new APIResponse(message, false);
+        return new ResponseEntity<>(response, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<APIResponse> handleResponseStatusException(ResponseStatusException e) {
+        APIResponse response = new APIResponse(e.getReason(), false);
+        return new ResponseEntity<>(response, e.getStatusCode());
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<APIResponse> handleConnectionUnavailableException(RuntimeException e) {
+        APIResponse response = new APIResponse("Service is busy, please retry shortly", false);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    // Two concurrent checkouts with the same key: the first wins and retrying with the key returns its order. Stale
+    // versions, e.g. a cart changed by a flash sale reservation while this request held it, are retried the same way.
+    // Other integrity violations will fail again on retry, so they are reported as plain conflicts.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<APIResponse> handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase().contains(CHECKOUT_KEY_CONSTRAINT)) {
+            return handleOptimisticLockingFailureException(e);
+        }
+        APIResponse response = new APIResponse("Request conflicts with existing data", false);
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<APIResponse> handleOptimisticLockingFailureException(RuntimeException e) {
+        APIResponse response = new APIResponse("Request conflicts with the current state, please retry", false);
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
 }
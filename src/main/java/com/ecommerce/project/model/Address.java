@@ -39,7 +39,7 @@ public class Address {
     @Size(min = 5, message = "Zip code must be at least 5 characters")
     private String zip;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -19,7 +19,7 @@ public class Cart {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -29,4 +29,9 @@ public class Cart {
     private List<CartItem> cartItems = new ArrayList<>();
 
     private Double totalPrice = 0.0;
+
+    // total_price is also written with plain SQL by flash sale reservations and bulk repricing, which bump this too,
+    // so a save from a stale copy fails instead of overwriting their amounts.
+    @Version
+    private Long version;
 }
@@ -16,15 +16,18 @@ public class CartItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long cartItemId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cart_id")
     private Cart cart;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
 
     private Integer quantity;
     private Double discount;
+    // Unit price the cart total was computed with: the product's special price when the line was last priced.
+    // Checkout charges this, so every writer of cart_item must keep it equal to what the total added.
     private Double price;
+    private boolean reserved;
 }
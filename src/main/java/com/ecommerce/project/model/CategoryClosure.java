@@ -0,0 +1,34 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Written with plain SQL by CategoryTreeRepository, mapped so JPQL queries can select a subtree.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "category_closure")
+@IdClass(CategoryClosure.Key.class)
+public class CategoryClosure {
+
+    @Id
+    private Long ancestorId;
+
+    @Id
+    private Long descendantId;
+
+    private int depth;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "orders")
+public class Order {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Column(nullable = false, length = 50)
+    private String email;
+
+    @Column(name = "checkout_key", nullable = false, length = 64)
+    private String checkoutKey;
+
+    @Column(nullable = false)
+    private Instant orderDate;
+
+    @Column(nullable = false)
+    private Double totalAmount;
+
+    @Column(nullable = false, length = 20)
+    private String orderStatus;
+
+    @ToString.Exclude
+    @OneToMany(mappedBy = "order", cascade = {CascadeType.PERSIST, CascadeType.MERGE}, orphanRemoval = true)
+    private List<OrderItem> orderItems = new ArrayList<>();
+}
@@ -7,6 +7,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -15,6 +17,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -37,17 +40,21 @@ public class Product {
     private double discount;
     private double specialPrice;
 
-    @ManyToOne
+    @Column(name = "flash_sale")
+    private boolean flashSale;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seller_id")
     private User user;
 
     @ToString.Exclude
     @OneToMany(mappedBy = "product",
-            cascade = {CascadeType.MERGE, CascadeType.MERGE},
-            fetch = FetchType.EAGER)
+            cascade = {CascadeType.MERGE, CascadeType.MERGE})
     private List<CartItem> cartItems;
 }
@@ -4,11 +4,14 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @NoArgsConstructor
 @Data
 @Table(name = "roles")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "role")
 @ToString(exclude = {"roleName"})
 public class Role {
     @Id
@@ -17,7 +20,7 @@ public class Role {
     private Integer roleId;
 
     @Enumerated(EnumType.STRING)
-    @Column(length = 20, name = "role_name")
+    @Column(length = 20, name = "role_name", unique = true)
     private AppRole roleName;
 
     public Role(AppRole roleName) {
@@ -15,4 +15,5 @@ public class CartDTO {
     private Long cartId;
     private Double totalPrice = 0.0;
     private List<ProductDTO> products = new ArrayList<>();
+    private List<String> notices = new ArrayList<>();
 }
@@ -10,4 +10,6 @@ import lombok.NoArgsConstructor;
 public class CategoryDTO {
     private Long categoryId;
     private String categoryName;
+    private Long parentCategoryId;
+    private long productCount;
 }
@@ -0,0 +1,22 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDTO {
+    private Long orderId;
+    private String email;
+    private String checkoutKey;
+    private Instant orderDate;
+    private Double totalAmount;
+    private String orderStatus;
+    private List<OrderItemDTO> orderItems = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemDTO {
+    private Long orderItemId;
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+    private Double discount;
+    private Double orderedProductPrice;
+}
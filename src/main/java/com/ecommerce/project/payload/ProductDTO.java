@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,4 +26,6 @@ public class ProductDTO {
     private double price;
     private double discount;
     private double specialPrice;
+    private boolean flashSale;
+    private Map<String, String> imageVariants;
 }
@@ -0,0 +1,17 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingProductDTO {
+    private Long productId;
+    private String productName;
+    private String image;
+    private double price;
+    private double specialPrice;
+    private double score;
+}
@@ -0,0 +1,5 @@
+package com.ecommerce.project.repository;
+
+// One product in a cart or an order, read without loading either entity.
+public record BasketLine(Long basketId, Long productId) {
+}
@@ -1,12 +1,22 @@
 package com.ecommerce.project.repository;
 
 import com.ecommerce.project.model.CartItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    @Query("SELECT ci FROM CartItem ci WHERE ci.product.productId = ?1 AND ci.cart.id = ?2")
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product WHERE ci.product.productId = ?1 AND ci.cart.id = ?2")
     CartItem findCartItemByProductIdAndCartId(Long productId, Long cartId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.ecommerce.project.repository.BasketLine(ci.cart.id, ci.product.productId) " +
+            "FROM CartItem ci ORDER BY ci.cart.id")
+    Stream<BasketLine> streamCartLines();
 }
@@ -1,6 +1,7 @@
 package com.ecommerce.project.repository;
 
 import com.ecommerce.project.model.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -12,9 +13,22 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c WHERE c.user.email = ?1")
     Cart findCartByEmail(String email);
 
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
+    @Query("SELECT c FROM Cart c WHERE c.user.email = ?1")
+    Cart findCartWithItemsByEmail(String email);
+
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
     @Query("SELECT c FROM Cart c WHERE c.user.email = ?1 AND c.id = ?2")
     Cart findCartByEmailAndCartId(String email, Long cartId);
 
-    @Query("SELECT c FROM Cart c JOIN FETCH c.cartItems ci JOIN FETCH ci.product p WHERE p.productId = ?1")
-    List<Cart> findCartsByProductId(Long productId);
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
+    @Query("SELECT c FROM Cart c WHERE c.id = ?1")
+    Cart findCartWithItemsById(Long cartId);
+
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
+    @Query("SELECT c FROM Cart c")
+    List<Cart> findAllWithItems();
+
+    @Query("SELECT ci.cart.id FROM CartItem ci WHERE ci.product.productId = ?1")
+    List<Long> findCartIdsByProductId(Long productId);
 }
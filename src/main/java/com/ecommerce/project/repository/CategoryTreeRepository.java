@@ -0,0 +1,115 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.util.TransactionUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Maintains category_closure and the per-subtree product counts. A category's ancestors are the closure rows with
+// it as descendant plus the category itself, so every statement below matches "category_id = ? OR ...".
+@Repository
+public class CategoryTreeRepository {
+    private static final String STRICT_ANCESTORS =
+            "SELECT ancestor_id FROM category_closure WHERE descendant_id = ?";
+    private static final String STRICT_DESCENDANTS =
+            "SELECT descendant_id FROM category_closure WHERE ancestor_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CategoryTreeRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void addLeaf(Long categoryId, Long parentId) {
+        jdbcTemplate.update("INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                "SELECT ancestor_id, ?, depth + 1 FROM category_closure WHERE descendant_id = ?", categoryId, parentId);
+        jdbcTemplate.update("INSERT INTO category_closure (ancestor_id, descendant_id, depth) VALUES (?, ?, 1)",
+                parentId, categoryId);
+    }
+
+    public boolean isInSubtree(Long categoryId, Long rootId) {
+        return categoryId.equals(rootId) || jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM category_closure WHERE ancestor_id = ? AND descendant_id = ?",
+                Integer.class, rootId, categoryId) > 0;
+    }
+
+    // Locks the moved category and its new parent's chain before the cycle check, so concurrent moves and product
+    // writes under it queue behind this one, and returns the subtree's product count as the database holds it.
+    public long lockForMove(Long categoryId, Long newParentId) {
+        return jdbcTemplate.query("SELECT category_id, product_count FROM category " +
+                "WHERE category_id IN (?, ?) OR category_id IN (" + STRICT_ANCESTORS + ") " +
+                "ORDER BY category_id FOR UPDATE", rs -> {
+            long productCount = 0;
+            while (rs.next()) {
+                if (rs.getLong(1) == categoryId) {
+                    productCount = rs.getLong(2);
+                }
+            }
+            return productCount;
+        }, categoryId, newParentId, newParentId);
+    }
+
+    // Re-parents a whole subtree with a fixed number of set based statements, however deep it is: the subtree's products
+    // leave the old ancestors' counts, the links to the old ancestors go, and every new ancestor is crossed
+    // with every member of the subtree.
+    public void move(Long categoryId, Long newParentId, long productCount) {
+        List<Long> oldAncestors = ancestors(categoryId);
+        jdbcTemplate.update("UPDATE category SET product_count = product_count - ? " +
+                "WHERE category_id IN (" + STRICT_ANCESTORS + ")", productCount, categoryId);
+        jdbcTemplate.update("DELETE FROM category_closure WHERE ancestor_id IN (" + STRICT_ANCESTORS + ") " +
+                "AND (descendant_id = ? OR descendant_id IN (" + STRICT_DESCENDANTS + "))",
+                categoryId, categoryId, categoryId);
+        if (newParentId != null) {
+            jdbcTemplate.update("INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                    "SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 " +
+                    "FROM (SELECT ancestor_id, depth FROM category_closure WHERE descendant_id = ? " +
+                    "UNION ALL SELECT CAST(? AS BIGINT), 0) a " +
+                    "CROSS JOIN (SELECT descendant_id, depth FROM category_closure WHERE ancestor_id = ? " +
+                    "UNION ALL SELECT CAST(? AS BIGINT), 0) d",
+                    newParentId, newParentId, categoryId, categoryId);
+            jdbcTemplate.update("UPDATE category SET product_count = product_count + ? " +
+                    "WHERE category_id IN (" + STRICT_ANCESTORS + ")", productCount, categoryId);
+            evictAfterCommit(ancestors(categoryId));
+        }
+        evictAfterCommit(oldAncestors);
+    }
+
+    // Only the subtree's ancestors need fixing up, the category's own row and closure rows go with it.
+    public void removeLeaf(Long categoryId, long productCount) {
+        jdbcTemplate.update("UPDATE category SET product_count = product_count - ? " +
+                "WHERE category_id IN (" + STRICT_ANCESTORS + ")", productCount, categoryId);
+        evictAfterCommit(ancestors(categoryId));
+    }
+
+    public boolean hasChildren(Long categoryId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM category_closure WHERE ancestor_id = ? AND depth = 1",
+                Integer.class, categoryId) > 0;
+    }
+
+    // Called for every product added to or removed from a category: one UPDATE over the category and its
+    // ancestors instead of recounting a subtree on read.
+    public void adjustProductCount(Long categoryId, long delta) {
+        jdbcTemplate.update("UPDATE category SET product_count = product_count + ? " +
+                "WHERE category_id = ? OR category_id IN (" + STRICT_ANCESTORS + ")", delta, categoryId, categoryId);
+        List<Long> updated = new ArrayList<>(ancestors(categoryId));
+        updated.add(categoryId);
+        evictAfterCommit(updated);
+    }
+
+    private List<Long> ancestors(Long categoryId) {
+        return jdbcTemplate.queryForList(STRICT_ANCESTORS, Long.class, categoryId);
+    }
+
+    // The counts are written behind Hibernate's back, drop the updated categories from the cache once the new values
+    // are visible; the rest of the region stays warm.
+    private void evictAfterCommit(List<Long> categoryIds) {
+        TransactionUtils.afterCommit(() -> categoryIds.forEach(categoryId ->
+                entityManagerFactory.getCache().evict(Category.class, categoryId)));
+    }
+}
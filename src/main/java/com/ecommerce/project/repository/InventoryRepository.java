@@ -0,0 +1,64 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.util.TransactionUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Repository
+public class InventoryRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public InventoryRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // Takes stock for every line in one conditional UPDATE: no SELECT ... FOR UPDATE and no read-modify-write,
+    // so a hot product row is only locked from this statement until the commit. Either every line has enough
+    // stock and all rows change, or fewer rows than lines are updated and the caller must roll back.
+    public boolean decrementStock(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return true;
+        }
+        // Same product order in every transaction keeps concurrent multi-line checkouts from deadlocking.
+        Map<Long, Integer> ordered = new TreeMap<>(quantities);
+        StringBuilder amount = new StringBuilder("CASE product_id");
+        List<Object> amountArgs = new ArrayList<>();
+        ordered.forEach((productId, quantity) -> {
+            amount.append(" WHEN ? THEN ?");
+            amountArgs.add(productId);
+            amountArgs.add(quantity);
+        });
+        amount.append(" END");
+        String ids = String.join(", ", Collections.nCopies(ordered.size(), "?"));
+
+        List<Object> args = new ArrayList<>(amountArgs);
+        args.addAll(ordered.keySet());
+        args.addAll(amountArgs);
+        int updated = jdbcTemplate.update("UPDATE product SET quantity = quantity - " + amount +
+                " WHERE product_id IN (" + ids + ") AND quantity >= " + amount, args.toArray());
+
+        evictAfterCommit(ordered.keySet());
+        return updated == ordered.size();
+    }
+
+    public void incrementStock(Long productId, int quantity) {
+        jdbcTemplate.update("UPDATE product SET quantity = quantity + ? WHERE product_id = ?", quantity, productId);
+        evictAfterCommit(List.of(productId));
+    }
+
+    // The UPDATE bypasses Hibernate, so drop the cached products once the new quantities are visible.
+    private void evictAfterCommit(Iterable<Long> productIds) {
+        TransactionUtils.afterCommit(() ->
+                productIds.forEach(id -> entityManagerFactory.getCache().evict(Product.class, id)));
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
+    Order findByUserUserIdAndCheckoutKey(Long userId, String checkoutKey);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.ecommerce.project.repository.BasketLine(oi.order.orderId, oi.product.productId) " +
+            "FROM OrderItem oi WHERE oi.product IS NOT NULL ORDER BY oi.order.orderId")
+    Stream<BasketLine> streamOrderLines();
+}
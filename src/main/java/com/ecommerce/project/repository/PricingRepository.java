@@ -0,0 +1,152 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.util.TransactionUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+
+@Repository
+public class PricingRepository {
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String UPDATE_PRICE =
+            "UPDATE product SET discount = ?, special_price = ? WHERE product_id = ?";
+    // Cart totals move by the difference while cart_item.price still holds the old price, the same arithmetic as
+    // CartService.updateProductsInCarts, so only the lines of repriced products change a total.
+    private static final String REPRICE_CART_TOTALS =
+            "UPDATE cart SET total_price = COALESCE(total_price, 0) + (" +
+            "SELECT SUM((p.special_price - ci.price) * ci.quantity) FROM cart_item ci " +
+            "JOIN product p ON p.product_id = ci.product_id " +
+            "WHERE ci.cart_id = cart.id AND ci.product_id IN (%1$s)), version = version + 1 " +
+            "WHERE id IN (SELECT ci.cart_id FROM cart_item ci WHERE ci.product_id IN (%1$s))";
+    private static final String REPRICE_CART_ITEMS =
+            "UPDATE cart_item SET " +
+            "price = (SELECT p.special_price FROM product p WHERE p.product_id = cart_item.product_id), " +
+            "discount = (SELECT p.discount FROM product p WHERE p.product_id = cart_item.product_id) " +
+            "WHERE product_id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public PricingRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public ProductPrices findPricesByCategory(Long categoryId) {
+        ProductPrices prices = new ProductPrices();
+        jdbcTemplate.query("SELECT product_id, price FROM product WHERE category_id = ? ORDER BY product_id",
+                rs -> {
+                    prices.add(rs.getLong(1), rs.getDouble(2));
+                }, categoryId);
+        return prices;
+    }
+
+    // Distinct products in id order, whatever the order and repeats of the input.
+    public ProductPrices findPrices(long[] productIds, int size) {
+        long[] ids = Arrays.stream(productIds, 0, size).sorted().distinct().toArray();
+        ProductPrices prices = new ProductPrices();
+        for (int from = 0; from < ids.length; from += CHUNK_SIZE) {
+            int to = Math.min(ids.length, from + CHUNK_SIZE);
+            jdbcTemplate.query("SELECT product_id, price FROM product WHERE product_id IN (" + placeholders(to - from) +
+                    ") ORDER BY product_id", rs -> {
+                prices.add(rs.getLong(1), rs.getDouble(2));
+            }, boxed(ids, from, to));
+        }
+        return prices;
+    }
+
+    public void updatePrices(long[] productIds, double[] discounts, double[] specialPrices, int size) {
+        for (int from = 0; from < size; from += CHUNK_SIZE) {
+            int offset = from;
+            int count = Math.min(size - from, CHUNK_SIZE);
+            jdbcTemplate.batchUpdate(UPDATE_PRICE, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setDouble(1, discounts[offset + i]);
+                    ps.setDouble(2, specialPrices[offset + i]);
+                    ps.setLong(3, productIds[offset + i]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+        evictProductsAfterCommit();
+    }
+
+    // Runs after updatePrices in the same transaction; returns the number of cart lines repriced.
+    public int repriceCarts(long[] productIds, int size) {
+        int repriced = 0;
+        for (int from = 0; from < size; from += CHUNK_SIZE) {
+            int to = Math.min(size, from + CHUNK_SIZE);
+            String ids = placeholders(to - from);
+            Object[] args = boxed(productIds, from, to);
+            Object[] twice = new Object[args.length * 2];
+            System.arraycopy(args, 0, twice, 0, args.length);
+            System.arraycopy(args, 0, twice, args.length, args.length);
+            jdbcTemplate.update(String.format(REPRICE_CART_TOTALS, ids), twice);
+            repriced += jdbcTemplate.update(String.format(REPRICE_CART_ITEMS, ids), args);
+        }
+        return repriced;
+    }
+
+    // Bypassing Hibernate leaves stale entries behind; a bulk change touches enough of the region to drop it whole.
+    private void evictProductsAfterCommit() {
+        TransactionUtils.afterCommit(() -> entityManagerFactory.getCache().evict(Product.class));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static Object[] boxed(long[] values, int from, int to) {
+        Object[] boxed = new Object[to - from];
+        for (int i = from; i < to; i++) {
+            boxed[i - from] = values[i];
+        }
+        return boxed;
+    }
+
+    // Product ids in ascending order with their list prices, as parallel primitive arrays.
+    public static class ProductPrices {
+        private long[] ids = new long[64];
+        private double[] prices = new double[64];
+        private int size;
+
+        void add(long id, double price) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                prices = Arrays.copyOf(prices, size * 2);
+            }
+            ids[size] = id;
+            prices[size] = price;
+            size++;
+        }
+
+        public long[] ids() {
+            return ids;
+        }
+
+        public double[] prices() {
+            return prices;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int indexOf(long id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+    }
+}
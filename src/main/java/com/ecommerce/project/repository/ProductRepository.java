@@ -5,6 +5,7 @@ import com.ecommerce.project.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,7 +14,14 @@ import java.util.Optional;
 public interface ProductRepository extends JpaRepository<Product, Long> {
     Page<Product> findByCategory(Category category, Pageable pageable);
 
+    // Descendants come from one primary key range scan of category_closure, the products from ix_product_category_product.
+    @Query("SELECT p FROM Product p WHERE p.category.categoryId = ?1 OR p.category.categoryId IN " +
+            "(SELECT cc.descendantId FROM CategoryClosure cc WHERE cc.ancestorId = ?1)")
+    Page<Product> findByCategoryTree(Long categoryId, Pageable pageable);
+
     Page<Product> findByProductNameLikeIgnoreCase(String keyword, Pageable pageable);
 
     Optional<Product> findByProductName(String productName);
+
+    long countByImage(String image);
 }
@@ -0,0 +1,121 @@
+package com.ecommerce.project.security.ratelimit;
+
+import com.ecommerce.project.payload.APIResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<Limiter> limiters;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.limiters = properties.getGroups().entrySet().stream()
+                .map(entry -> new Limiter(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || limiters.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        for (Limiter limiter : limiters) {
+            if (limiter.matcher.matches(request)) {
+                long waitNanos = limiter.tryConsume(clientKey(limiter.group.getKeyBy(), request), System.nanoTime());
+                if (waitNanos > 0) {
+                    reject(limiter, request, response, waitNanos);
+                    return;
+                }
+                break;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleEviction().toNanos();
+        limiters.forEach(limiter -> limiter.buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos)));
+    }
+
+    private String clientKey(RateLimitProperties.KeyType keyBy, HttpServletRequest request) {
+        if (keyBy == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(Limiter limiter, HttpServletRequest request, HttpServletResponse response, long waitNanos)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        logger.debug("Rate limit '{}' exceeded for {} {}", limiter.name, request.getMethod(), request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new APIResponse("Too many requests, retry after " + retryAfterSeconds + " seconds", false));
+    }
+
+    private static class Limiter {
+        private final String name;
+        private final RateLimitProperties.Group group;
+        private final RequestMatcher matcher;
+        private final long emissionInterval;
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+        Limiter(String name, RateLimitProperties.Group group) {
+            this.name = name;
+            this.group = group;
+            this.matcher = new OrRequestMatcher(group.getPatterns().stream()
+                    .map(pattern -> (RequestMatcher) new AntPathRequestMatcher(pattern))
+                    .toList());
+            this.emissionInterval = Math.max(1, group.getRefillPeriod().toNanos() / group.getRefillTokens());
+        }
+
+        long tryConsume(String key, long now) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+            }
+            return bucket.tryConsume(now, emissionInterval, group.getCapacity());
+        }
+    }
+}
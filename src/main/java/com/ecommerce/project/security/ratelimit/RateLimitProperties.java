@@ -0,0 +1,35 @@
+package com.ecommerce.project.security.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "project.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private Duration idleEviction = Duration.ofMinutes(10);
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    public enum KeyType {
+        IP,
+        // Only for routes AuthTokenFilter authenticates; anywhere else every caller falls back to its IP.
+        USER
+    }
+
+    @Data
+    public static class Group {
+        private List<String> patterns = new ArrayList<>();
+        private long capacity = 60;
+        private long refillTokens = 60;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+        private KeyType keyBy = KeyType.IP;
+    }
+}
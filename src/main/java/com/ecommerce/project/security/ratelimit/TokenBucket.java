@@ -0,0 +1,32 @@
+package com.ecommerce.project.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket in GCRA form: the only state is the theoretical arrival time, updated with a single CAS.
+class TokenBucket {
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanoseconds until one becomes available.
+    long tryConsume(long now, long emissionInterval, long capacity) {
+        long burst = emissionInterval * capacity;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + emissionInterval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isIdle(long now, long idleNanos) {
+        return now - theoreticalArrival.get() > idleNanos;
+    }
+}
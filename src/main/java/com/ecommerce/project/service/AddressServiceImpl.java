@@ -6,12 +6,15 @@ import com.ecommerce.project.model.User;
 import com.ecommerce.project.payload.AddressDTO;
 import com.ecommerce.project.repository.AddressRepository;
 import com.ecommerce.project.util.AuthUtil;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+@Timed("project.service")
 @Service
 @AllArgsConstructor
 public class AddressServiceImpl implements AddressService {
@@ -20,14 +23,10 @@ public class AddressServiceImpl implements AddressService {
     private AuthUtil authUtil;
 
     @Override
+    @Transactional
     public AddressDTO createAddress(AddressDTO addressDTO) {
         User user = authUtil.loggedInUser();
         Address address = modelMapper.map(addressDTO, Address.class);
-
-        List<Address> addresses = user.getAddresses();
-        addresses.add(address);
-        user.setAddresses(addresses);
-
         address.setUser(user);
         Address savedAddress = addressRepository.save(address);
 
@@ -35,6 +34,7 @@ public class AddressServiceImpl implements AddressService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AddressDTO> getAllAddresses() {
         List<Address> addresses = addressRepository.findAll();
         return addresses.stream()
@@ -43,6 +43,7 @@ public class AddressServiceImpl implements AddressService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AddressDTO getAddressById(Long addressId) {
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new ResourceNotFoundException("Address", "addressId", addressId));
@@ -50,15 +51,16 @@ public class AddressServiceImpl implements AddressService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AddressDTO> getAddressesByUser() {
-        User user = authUtil.loggedInUser();
-        List<Address> addresses = user.getAddresses();
+        List<Address> addresses = addressRepository.findByUsername(authUtil.loggedInUsername());
         return addresses.stream()
                 .map(address -> modelMapper.map(address, AddressDTO.class))
                 .toList();
     }
 
     @Override
+    @Transactional
     public AddressDTO updateAddress(Long addressId, AddressDTO addressDTO) {
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new ResourceNotFoundException("Address", "addressId", addressId));
@@ -72,6 +74,7 @@ public class AddressServiceImpl implements AddressService {
     }
 
     @Override
+    @Transactional
     public AddressDTO deleteAddress(Long addressId) {
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new ResourceNotFoundException("Address", "addressId", addressId));
@@ -0,0 +1,20 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.SuggestionDTO;
+
+import java.util.List;
+
+public interface AutocompleteService {
+
+    List<SuggestionDTO> suggest(String prefix, int limit);
+
+    void productChanged(Long productId, String productName);
+
+    void productDeleted(Long productId);
+
+    void categoryChanged(Long categoryId, String categoryName);
+
+    void categoryDeleted(Long categoryId);
+
+    void rebuild();
+}
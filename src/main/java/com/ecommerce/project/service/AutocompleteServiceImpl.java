@@ -0,0 +1,191 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.SuggestionDTO;
+import com.ecommerce.project.service.autocomplete.PrefixIndex;
+import com.ecommerce.project.util.TransactionUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Serves typeahead from an immutable PrefixIndex over product and category names. Committed product and category
+// writes go to a small overlay, itself a PrefixIndex, that hides the entries they replace and is merged into every
+// lookup. A full rebuild off the request path folds the overlay in and refreshes popularity (cart and order lines
+// per product, products per category) every max-age, or sooner once max-pending writes have piled up, but never more
+// often than min-rebuild-interval. Names from the overlay rank with no popularity until then.
+@Service
+public class AutocompleteServiceImpl implements AutocompleteService {
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteServiceImpl.class);
+
+    private static final String PRODUCTS =
+            "SELECT p.product_id, p.product_name, COALESCE(c.line_count, 0) + COALESCE(o.line_count, 0) FROM product p " +
+            "LEFT JOIN (SELECT product_id, COUNT(*) AS line_count FROM cart_item GROUP BY product_id) c " +
+            "ON c.product_id = p.product_id " +
+            "LEFT JOIN (SELECT product_id, COUNT(*) AS line_count FROM order_item GROUP BY product_id) o " +
+            "ON o.product_id = p.product_id";
+    private static final String CATEGORIES =
+            "SELECT c.category_id, c.category_name, COUNT(p.product_id) FROM category c " +
+            "LEFT JOIN product p ON p.category_id = c.category_id GROUP BY c.category_id, c.category_name";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxAgeNanos;
+    private final long minRebuildIntervalNanos;
+    private final int maxPending;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Key, Change> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile PrefixIndex index = PrefixIndex.builder().build();
+    private volatile PrefixIndex overlay = PrefixIndex.builder().build();
+    private volatile boolean built;
+    private volatile long builtAt;
+
+    public AutocompleteServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${project.autocomplete.max-age}") Duration maxAge,
+                                   @Value("${project.autocomplete.min-rebuild-interval}") Duration minRebuildInterval,
+                                   @Value("${project.autocomplete.max-pending}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAgeNanos = maxAge.toNanos();
+        this.minRebuildIntervalNanos = minRebuildInterval.toNanos();
+        this.maxPending = maxPending;
+        Gauge.builder("project.autocomplete.index.bytes", this, service -> service.index.estimatedBytes())
+                .register(meterRegistry);
+        Gauge.builder("project.autocomplete.index.size", this, service -> service.index.size())
+                .register(meterRegistry);
+        Gauge.builder("project.autocomplete.pending", pending, Map::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        List<PrefixIndex.Suggestion> suggestions = new ArrayList<>(overlay.suggest(prefix, limit));
+        suggestions.addAll(fromIndex(prefix, limit));
+        // Stable, so ties keep the index order with overlay names first.
+        return suggestions.stream()
+                .sorted(Comparator.comparingInt(PrefixIndex.Suggestion::popularity).reversed())
+                .limit(limit)
+                .map(suggestion -> new SuggestionDTO(suggestion.type().name(), suggestion.id(), suggestion.name()))
+                .toList();
+    }
+
+    // Entries the overlay replaces or removes are skipped, so ask the index again for as many more as were skipped.
+    private List<PrefixIndex.Suggestion> fromIndex(String prefix, int limit) {
+        int wanted = limit;
+        while (true) {
+            List<PrefixIndex.Suggestion> found = index.suggest(prefix, wanted);
+            List<PrefixIndex.Suggestion> kept = found.stream()
+                    .filter(suggestion -> !pending.containsKey(new Key(suggestion.type(), suggestion.id())))
+                    .toList();
+            if (kept.size() >= limit || found.size() < wanted) {
+                return kept;
+            }
+            wanted += limit - kept.size();
+        }
+    }
+
+    @Override
+    public void productChanged(Long productId, String productName) {
+        TransactionUtils.afterCommit(() -> apply(new Key(PrefixIndex.Type.PRODUCT, productId), productName));
+    }
+
+    @Override
+    public void productDeleted(Long productId) {
+        TransactionUtils.afterCommit(() -> apply(new Key(PrefixIndex.Type.PRODUCT, productId), null));
+    }
+
+    @Override
+    public void categoryChanged(Long categoryId, String categoryName) {
+        TransactionUtils.afterCommit(() -> apply(new Key(PrefixIndex.Type.CATEGORY, categoryId), categoryName));
+    }
+
+    @Override
+    public void categoryDeleted(Long categoryId) {
+        TransactionUtils.afterCommit(() -> apply(new Key(PrefixIndex.Type.CATEGORY, categoryId), null));
+    }
+
+    private void apply(Key key, String name) {
+        synchronized (pending) {
+            pending.put(key, new Change(name, sequence.incrementAndGet()));
+            overlay = overlay(pending);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${project.autocomplete.refresh-interval}", scheduler = "rebuildScheduler")
+    public void refresh() {
+        long age = System.nanoTime() - builtAt;
+        if (!built || age > maxAgeNanos || (pending.size() >= maxPending && age > minRebuildIntervalNanos)) {
+            rebuild();
+        }
+    }
+
+    // A change recorded before the snapshot was committed before it, so the new index has it and it can leave the
+    // overlay; later ones stay for the next rebuild. That only holds on the primary: a read-only transaction could go
+    // to a lagging replica, so the scan is read-write.
+    @Override
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            long snapshot = sequence.get();
+            PrefixIndex.Builder builder = PrefixIndex.builder();
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.query(PRODUCTS, rs -> {
+                    builder.product(rs.getLong(1), rs.getString(2), rs.getInt(3));
+                });
+                jdbcTemplate.query(CATEGORIES, rs -> {
+                    builder.category(rs.getLong(1), rs.getString(2), rs.getInt(3));
+                });
+            });
+            PrefixIndex next = builder.build();
+            synchronized (pending) {
+                index = next;
+                pending.values().removeIf(change -> change.sequence() <= snapshot);
+                overlay = overlay(pending);
+                built = true;
+                builtAt = System.nanoTime();
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Rebuilt autocomplete index with {} names in {} ms, about {} bytes",
+                        next.size(), (builtAt - start) / 1_000_000, next.estimatedBytes());
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static PrefixIndex overlay(Map<Key, Change> pending) {
+        PrefixIndex.Builder builder = PrefixIndex.builder();
+        pending.forEach((key, change) -> {
+            if (key.type() == PrefixIndex.Type.PRODUCT) {
+                builder.product(key.id(), change.name(), 0);
+            } else {
+                builder.category(key.id(), change.name(), 0);
+            }
+        });
+        return builder.build();
+    }
+
+    private record Key(PrefixIndex.Type type, long id) {
+    }
+
+    // name is null for a deletion, which only hides the indexed entry.
+    private record Change(String name, long sequence) {
+    }
+}
@@ -1,7 +1,6 @@
 package com.ecommerce.project.service;
 
 import com.ecommerce.project.payload.CartDTO;
-import jakarta.transaction.Transactional;
 
 import java.util.List;
 
@@ -10,7 +9,6 @@ public interface CartService {
     List<CartDTO> getAllCarts();
     CartDTO getCart(String email, Long cartId);
 
-    @Transactional
     CartDTO updateProductQuantityInCart(Long productId, Integer delete);
 
     String deleteProductFromCart(Long cartId, Long productId);
@@ -10,15 +10,19 @@ import com.ecommerce.project.payload.ProductDTO;
 import com.ecommerce.project.repository.CartItemRepository;
 import com.ecommerce.project.repository.CartRepository;
 import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.service.flashsale.FlashSaleInventory;
 import com.ecommerce.project.util.AuthUtil;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
+@Timed("project.service")
 @Service
 @AllArgsConstructor
 public class CartServiceImpl implements CartService {
@@ -28,20 +32,33 @@ public class CartServiceImpl implements CartService {
     ProductRepository productRepository;
     AuthUtil authUtil;
     ModelMapper modelMapper;
+    FlashSaleInventory flashSaleInventory;
+    RecommendationService recommendationService;
+    TrendingService trendingService;
 
     @Override
+    @Transactional
     public CartDTO addProductToCart(Long productId, Integer quantity) {
         Cart cart = createCart();
 
         Product product = productRepository .findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
-        CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(productId, cart.getId());
+        boolean inCart = cart.getCartItems().stream()
+                .anyMatch(item -> item.getProduct().getProductId().equals(productId));
 
-        if (cartItem != null) {
+        if (inCart) {
             throw new APIException("Product" + product.getProductName() + " already exists in cart");
         }
 
+        recommendationService.recordAddedToCart(productId, productIds(cart));
+        // Counted even if the product then turns out to be sold out: demand is what trends.
+        trendingService.recordAddedToCart(productId);
+
+        if (product.isFlashSale()) {
+            return reserveFlashSaleItem(cart, product, quantity);
+        }
+
         if (product.getQuantity() == 0) {
             throw new APIException("Product" + product.getProductName() + " is not available");
         }
@@ -56,7 +73,7 @@ public class CartServiceImpl implements CartService {
         newCartItem.setQuantity(quantity);
         newCartItem.setCart(cart);
         newCartItem.setDiscount(product.getDiscount());
-        newCartItem.setPrice(product.getPrice());
+        newCartItem.setPrice(product.getSpecialPrice());
         cartItemRepository.save(newCartItem);
 
         product.setQuantity(product.getQuantity());
@@ -81,8 +98,37 @@ public class CartServiceImpl implements CartService {
         return cartDTO;
     }
 
+    // The counters decide without reading the product row; the line is written by the next flush, so it is only
+    // added to the response here and not to the managed cart.
+    private CartDTO reserveFlashSaleItem(Cart cart, Product product, Integer quantity) {
+        if (!flashSaleInventory.reserve(cart.getId(), product, quantity)) {
+            throw new APIException("Product " + product.getProductName() + " is sold out");
+        }
+
+        List<ProductDTO> products = new ArrayList<>();
+        for (CartItem item : cart.getCartItems()) {
+            ProductDTO productDTO = modelMapper.map(item.getProduct(), ProductDTO.class);
+            productDTO.setQuantity(item.getQuantity());
+            products.add(productDTO);
+        }
+        ProductDTO reserved = modelMapper.map(product, ProductDTO.class);
+        reserved.setQuantity(quantity);
+        products.add(reserved);
+
+        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
+        cartDTO.setTotalPrice(cart.getTotalPrice() + product.getSpecialPrice() * quantity);
+        cartDTO.setProducts(products);
+        return cartDTO;
+    }
+
+    private static List<Long> productIds(Cart cart) {
+        return cart.getCartItems().stream()
+                .map(item -> item.getProduct().getProductId())
+                .toList();
+    }
+
     private Cart createCart() {
-        Cart userCart = cartRepository.findCartByEmail(authUtil.loggedInEmail());
+        Cart userCart = cartRepository.findCartWithItemsByEmail(authUtil.loggedInEmail());
         if (userCart != null) {
             return userCart;
         }
@@ -93,9 +139,11 @@ public class CartServiceImpl implements CartService {
         return cartRepository.save(cart);
     }
 
+    // Cart reads are read-write so they go to the primary and see the shopper's own writes, never a lagging replica.
     @Override
+    @Transactional
     public List<CartDTO> getAllCarts() {
-        List<Cart> carts = cartRepository.findAll();
+        List<Cart> carts = cartRepository.findAllWithItems();
 
         if (carts.isEmpty()) {
             throw new APIException("No carts found");
@@ -113,17 +161,27 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @Transactional
     public CartDTO getCart(String email, Long cartId) {
         Cart cart = cartRepository.findCartByEmailAndCartId(email, cartId);
         if (cart == null) {
             throw new ResourceNotFoundException("Cart", "cartId", cartId);
         }
         CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-        cart.getCartItems().forEach(c -> c.getProduct().setQuantity(c.getQuantity()));
+        // The line quantity goes on the DTO: the products are managed, so setting it on them would overwrite stock.
         List<ProductDTO> products = cart.getCartItems().stream()
-                .map(p -> modelMapper.map(p.getProduct(), ProductDTO.class))
+                .map(p -> {
+                    ProductDTO productDTO = modelMapper.map(p.getProduct(), ProductDTO.class);
+                    productDTO.setQuantity(p.getQuantity());
+                    return productDTO;
+                })
                 .toList();
         cartDTO.setProducts(products);
+        for (Long productId : flashSaleInventory.takeDropped(cartId)) {
+            String productName = productRepository.findById(productId).map(Product::getProductName).orElse("");
+            cartDTO.getNotices().add("Flash sale product " + productName +
+                    " sold out before your reservation was saved and is not in your cart");
+        }
         return cartDTO;
     }
 
@@ -131,7 +189,7 @@ public class CartServiceImpl implements CartService {
     @Transactional
     public CartDTO updateProductQuantityInCart(Long productId, Integer quantity) {
         String email = authUtil.loggedInEmail();
-        Cart cart = cartRepository.findCartByEmail(email);
+        Cart cart = cartRepository.findCartWithItemsByEmail(email);
 
         if (cart == null) {
             throw new ResourceNotFoundException("Cart", "email", email);
@@ -149,10 +207,14 @@ public class CartServiceImpl implements CartService {
                     " less than or equal to the quantity " + product.getQuantity());
         }
 
-        CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(productId, cart.getId());
+        CartItem cartItem = cart.getCartItems().stream()
+                .filter(item -> item.getProduct().getProductId().equals(productId))
+                .findFirst()
+                .orElseThrow(() -> new APIException("Product" + product.getProductName() + " is not available in the cart"));
 
-        if (cartItem == null) {
-            throw new APIException("Product" + product.getProductName() + " is not available in the cart");
+        if (cartItem.isReserved()) {
+            throw new APIException("The quantity of flash sale product " + product.getProductName() +
+                    " cannot be changed, remove it from the cart instead");
         }
 
         cartItem.setQuantity(cartItem.getQuantity() + quantity);
@@ -161,6 +223,7 @@ public class CartServiceImpl implements CartService {
             List<CartItem> cartItems = cart.getCartItems();
             cartItems.remove(cartItem);
             cart.setCartItems(cartItems);
+            recommendationService.recordRemovedFromCart(productId, productIds(cart));
         }
         else {
             cartItem.setPrice(product.getSpecialPrice());
@@ -184,28 +247,35 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @Transactional
     public String deleteProductFromCart(Long cartId, Long productId) {
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart", "cartId", cartId));
-        CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(cartId, productId);
-
-        if (cartItem == null) {
-            throw new ResourceNotFoundException("Product", "productId", productId);
+        Cart cart = cartRepository.findCartWithItemsById(cartId);
+        if (cart == null) {
+            throw new ResourceNotFoundException("Cart", "cartId", cartId);
         }
+        CartItem cartItem = cart.getCartItems().stream()
+                .filter(item -> item.getProduct().getProductId().equals(productId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
-        cart.setTotalPrice(cart.getTotalPrice() - cartItem.getProduct().getSpecialPrice() * cartItem.getQuantity());
+        cart.setTotalPrice(cart.getTotalPrice() - cartItem.getPrice() * cartItem.getQuantity());
         cart.getCartItems().remove(cartItem);
         cartItemRepository.delete(cartItem);
+        recommendationService.recordRemovedFromCart(productId, productIds(cart));
+        if (cartItem.isReserved()) {
+            flashSaleInventory.release(productId, cartItem.getQuantity());
+        }
         return cartItem.getProduct().getProductName() + " removed from cart";
     }
 
     @Override
+    @Transactional
     public void updateProductsInCarts(Long cartId, Long productId) {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart", "cartId", cartId));
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
-        CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(cartId, productId);
+        CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(productId, cartId);
 
         if (cartItem == null) {
             throw new APIException("Product" + product.getProductName() + " is not available in the cart");
@@ -3,9 +3,13 @@ package com.ecommerce.project.service;
 import com.ecommerce.project.payload.CategoryDTO;
 import com.ecommerce.project.payload.CategoryResponse;
 
+import java.util.List;
+
 public interface CategoryService {
     CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String order);
+    List<CategoryDTO> getSubcategories(Long categoryId);
     CategoryDTO createCategory(CategoryDTO categoryDTO);
     CategoryDTO updateCategory(Long categoryId, CategoryDTO categoryDTO);
+    CategoryDTO moveCategory(Long categoryId, Long parentId);
     CategoryDTO deleteCategory(Long categoryId);
 }
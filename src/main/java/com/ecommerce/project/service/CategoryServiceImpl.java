@@ -6,6 +6,8 @@ import com.ecommerce.project.model.Category;
 import com.ecommerce.project.payload.CategoryDTO;
 import com.ecommerce.project.payload.CategoryResponse;
 import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.CategoryTreeRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.*;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
@@ -13,18 +15,24 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
+@Timed("project.service")
 @AllArgsConstructor
 @Service
 public class CategoryServiceImpl implements CategoryService {
 
     private CategoryRepository categoryRepository;
+    private CategoryTreeRepository categoryTreeRepository;
     private ModelMapper modelMapper;
+    private AutocompleteService autocompleteService;
 
     @Override
+    @Transactional(readOnly = true)
     public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
         Sort sort = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
@@ -52,30 +60,93 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<CategoryDTO> getSubcategories(Long categoryId) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category", "categoryId", categoryId);
+        }
+        return categoryRepository.findByParentCategoryIdOrderByCategoryName(categoryId).stream()
+                .map(category -> modelMapper.map(category, CategoryDTO.class))
+                .toList();
+    }
+
+    @Override
+    @Transactional
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
         Optional<Category> savedCategory = categoryRepository.findByCategoryName(categoryDTO.getCategoryName());
         if (savedCategory.isPresent()) {
             throw new APIException("Category name already exists");
         }
-        Category category = modelMapper.map(categoryDTO, Category.class);
+        // Built by hand, mapping the DTO would turn parentCategoryId into a new parent entity.
+        Category category = new Category(null, categoryDTO.getCategoryName(), null);
+        category.setParent(findParent(categoryDTO.getParentCategoryId()));
         Category responseCategory = categoryRepository.save(category);
+        if (category.getParent() != null) {
+            categoryTreeRepository.addLeaf(responseCategory.getCategoryId(), category.getParent().getCategoryId());
+        }
+        autocompleteService.categoryChanged(responseCategory.getCategoryId(), responseCategory.getCategoryName());
         return modelMapper.map(responseCategory, CategoryDTO.class);
     }
 
     @Override
+    @Transactional
     public CategoryDTO updateCategory(Long categoryId, CategoryDTO categoryDTO) {
-        Category savedCategory = categoryRepository.findById(categoryDTO.getCategoryId())
+        Category savedCategory = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
-        categoryDTO.setCategoryId(categoryId);
-        savedCategory = categoryRepository.save(modelMapper.map(categoryDTO, Category.class));
+        savedCategory.setCategoryName(categoryDTO.getCategoryName());
+        // A body without a parent is a rename; moving to the root goes through moveCategory.
+        if (categoryDTO.getParentCategoryId() != null) {
+            move(savedCategory, categoryDTO.getParentCategoryId());
+        }
+        savedCategory = categoryRepository.save(savedCategory);
+        autocompleteService.categoryChanged(categoryId, savedCategory.getCategoryName());
         return modelMapper.map(savedCategory, CategoryDTO.class);
     }
 
     @Override
+    @Transactional
+    public CategoryDTO moveCategory(Long categoryId, Long parentId) {
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
+        move(category, parentId);
+        return modelMapper.map(categoryRepository.save(category), CategoryDTO.class);
+    }
+
+    @Override
+    @Transactional
     public CategoryDTO deleteCategory(Long categoryId) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
+        if (categoryTreeRepository.hasChildren(categoryId)) {
+            throw new APIException("Category has subcategories, move or delete them first");
+        }
+        categoryTreeRepository.removeLeaf(categoryId, category.getProductCount());
         categoryRepository.delete(category);
+        autocompleteService.categoryDeleted(categoryId);
         return modelMapper.map(category, CategoryDTO.class);
     }
+
+    private void move(Category category, Long parentId) {
+        Long categoryId = category.getCategoryId();
+        Long currentParentId = category.getParent() == null ? null : category.getParent().getCategoryId();
+        if (Objects.equals(parentId, currentParentId)) {
+            return;
+        }
+        Category parent = findParent(parentId);
+        // The cached count may be stale; the locked row's is not, and the cycle check cannot race another move.
+        long productCount = categoryTreeRepository.lockForMove(categoryId, parentId);
+        if (parent != null && categoryTreeRepository.isInSubtree(parentId, categoryId)) {
+            throw new APIException("Category cannot be moved under itself or one of its subcategories");
+        }
+        categoryTreeRepository.move(categoryId, parentId, productCount);
+        category.setParent(parent);
+    }
+
+    private Category findParent(Long parentId) {
+        if (parentId == null) {
+            return null;
+        }
+        return categoryRepository.findById(parentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", parentId));
+    }
 }
@@ -3,7 +3,19 @@ package com.ecommerce.project.service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
 
 public interface FileService {
+    // The returned blob is pinned against deletion until unpinImage, once the caller's reference to it is committed.
     String uploadImage(String path, MultipartFile image) throws IOException;
+
+    String uploadImage(String path, InputStream image) throws IOException;
+
+    void unpinImage(String filename);
+
+    boolean deleteImageIfUnused(String path, String filename, BooleanSupplier unused) throws IOException;
+
+    Path resolveImage(String path, String filename);
 }
@@ -1,27 +1,192 @@
 package com.ecommerce.project.service;
 
-import lombok.NoArgsConstructor;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
 
+@Timed("project.service")
 @Service
-@NoArgsConstructor
 public class FileServiceImpl implements FileService {
+    private static final Pattern IMAGE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]*(\\.[A-Za-z0-9]+)?");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    private ImageVariantService imageVariantService;
+    private long maxUploadBytes;
+    private Duration acquireTimeout;
+    private Semaphore uploadPermits;
+    // Blobs are shared by content hash. Publishing and deleting one hold the lock for its name, and uploads pin
+    // it until their product is committed, so a delete can never remove a blob a new reference is about to use.
+    // The locks are held across disk and database I/O, so they are not monitors a virtual thread would pin on.
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Map<String, Integer> pins = new ConcurrentHashMap<>();
+
+    public FileServiceImpl(ImageVariantService imageVariantService,
+                           @Value("${project.image.upload.max-size}") DataSize maxUploadSize,
+                           @Value("${project.image.upload.max-concurrent}") int maxConcurrentUploads,
+                           @Value("${project.image.upload.acquire-timeout}") Duration acquireTimeout) {
+        this.imageVariantService = imageVariantService;
+        this.maxUploadBytes = maxUploadSize.toBytes();
+        this.acquireTimeout = acquireTimeout;
+        this.uploadPermits = new Semaphore(maxConcurrentUploads, true);
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
     public String uploadImage(String path, MultipartFile image) throws IOException {
-        String originalFilename = image.getOriginalFilename();
-        String randomId = UUID.randomUUID().toString();
-        String filename = randomId.concat(originalFilename.substring(originalFilename.lastIndexOf(".")));
-        String filePath = path + File.separator + filename;
+        if (image.getSize() > maxUploadBytes) {
+            throw new MaxUploadSizeExceededException(maxUploadBytes);
+        }
+        try (InputStream in = image.getInputStream()) {
+            return uploadImage(path, in);
+        }
+    }
+
+    @Override
+    public String uploadImage(String path, InputStream image) throws IOException {
+        try {
+            if (!uploadPermits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many concurrent image uploads, try again shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an upload slot");
+        }
+        try {
+            return store(path, image);
+        } finally {
+            uploadPermits.release();
+        }
+    }
+
+    private String store(String path, InputStream image) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read = image.readNBytes(buffer, 0, ImageType.HEADER_LENGTH);
+        ImageType type = ImageType.detect(buffer, read);
+        if (type == null) {
+            throw new APIException("Unsupported image format, expected JPEG, PNG, GIF or WebP");
+        }
 
-        new File(path).mkdirs();
-        Files.copy(image.getInputStream(), Paths.get(filePath));
+        Path directory = Files.createDirectories(Paths.get(path));
+        // Not createTempFile: its owner-only permissions would stick to the published blob.
+        Path temp = Files.createFile(directory.resolve(".upload-" + UUID.randomUUID() + ".tmp"));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                while (read != -1) {
+                    size += read;
+                    if (size > maxUploadBytes) {
+                        throw new MaxUploadSizeExceededException(maxUploadBytes);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    read = image.read(buffer);
+                }
+            }
+            // Same bytes, same name: re-uploads reuse the stored blob and its URL.
+            String filename = HexFormat.of().formatHex(digest.digest()) + type.getExtension();
+            Path target = directory.resolve(filename);
+            boolean stored;
+            ReentrantLock lock = lockFor(filename);
+            lock.lock();
+            try {
+                pins.merge(filename, 1, Integer::sum);
+                stored = !Files.exists(target);
+                if (stored) {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                lock.unlock();
+            }
+            // An existing blob already has its variants, or they are being generated.
+            if (stored) {
+                imageVariantService.generateVariants(path, filename);
+            }
+            return filename;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void unpinImage(String filename) {
+        pins.computeIfPresent(filename, (name, count) -> count == 1 ? null : count - 1);
+    }
+
+    // unused is checked under the blob's lock, after any upload of the same bytes has pinned it.
+    @Override
+    public boolean deleteImageIfUnused(String path, String filename, BooleanSupplier unused) throws IOException {
+        if (filename == null || !IMAGE_NAME.matcher(filename).matches()) {
+            throw new ResourceNotFoundException("Image", "filename", filename);
+        }
+        ReentrantLock lock = lockFor(filename);
+        lock.lock();
+        try {
+            if (pins.containsKey(filename) || !unused.getAsBoolean()) {
+                return false;
+            }
+            Files.deleteIfExists(Paths.get(path, filename));
+            for (ImageVariant variant : ImageVariant.values()) {
+                Files.deleteIfExists(Paths.get(path, variant.fileName(filename)));
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(String filename) {
+        return locks[Math.floorMod(filename.hashCode(), locks.length)];
+    }
 
-        return filename;
+    @Override
+    public Path resolveImage(String path, String filename) {
+        if (filename == null || !IMAGE_NAME.matcher(filename).matches()) {
+            throw new ResourceNotFoundException("Image", "filename", filename);
+        }
+        Path image = Paths.get(path, filename);
+        if (Files.isRegularFile(image)) {
+            return image;
+        }
+        // Variants are generated in the background, or skipped for small originals.
+        String original = ImageVariant.originalFileName(filename);
+        if (original != null && Files.isRegularFile(Paths.get(path, original))) {
+            return Paths.get(path, original);
+        }
+        throw new ResourceNotFoundException("Image", "filename", filename);
     }
 }
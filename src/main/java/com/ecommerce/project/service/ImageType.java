@@ -0,0 +1,43 @@
+package com.ecommerce.project.service;
+
+public enum ImageType {
+    JPEG(".jpg", new int[]{0xFF, 0xD8, 0xFF}),
+    PNG(".png", new int[]{0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A}),
+    GIF(".gif", new int[]{'G', 'I', 'F', '8'}),
+    WEBP(".webp", new int[]{'R', 'I', 'F', 'F', -1, -1, -1, -1, 'W', 'E', 'B', 'P'});
+
+    public static final int HEADER_LENGTH = 12;
+
+    private final String extension;
+    private final int[] magic;
+
+    ImageType(String extension, int[] magic) {
+        this.extension = extension;
+        this.magic = magic;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ImageType detect(byte[] header, int length) {
+        for (ImageType type : values()) {
+            if (type.matches(header, length)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(byte[] header, int length) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (magic[i] >= 0 && (header[i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.project.service;
+
+public enum ImageVariant {
+    THUMBNAIL("thumbnail", 150),
+    LISTING("listing", 400),
+    DETAIL("detail", 1080);
+
+    private final String key;
+    private final int width;
+
+    ImageVariant(String key, int width) {
+        this.key = key;
+        this.width = width;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public String fileName(String original) {
+        int dot = original.lastIndexOf('.');
+        String base = dot < 0 ? original : original.substring(0, dot);
+        String extension = dot < 0 ? "" : original.substring(dot);
+        return base + "-w" + width + extension;
+    }
+
+    public static String originalFileName(String variantFileName) {
+        int dot = variantFileName.lastIndexOf('.');
+        String base = dot < 0 ? variantFileName : variantFileName.substring(0, dot);
+        String extension = dot < 0 ? "" : variantFileName.substring(dot);
+        for (ImageVariant variant : values()) {
+            String suffix = "-w" + variant.width;
+            if (base.endsWith(suffix)) {
+                return base.substring(0, base.length() - suffix.length()) + extension;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.project.service;
+
+import java.util.Map;
+
+public interface ImageVariantService {
+    void generateVariants(String path, String filename);
+
+    Map<String, String> variantUrls(String filename);
+}
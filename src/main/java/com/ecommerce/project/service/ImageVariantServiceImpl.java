@@ -0,0 +1,145 @@
+package com.ecommerce.project.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class ImageVariantServiceImpl implements ImageVariantService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantServiceImpl.class);
+
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+
+    @Value("${project.image.base-url}")
+    private String imageBaseUrl;
+
+    @Override
+    @Async("imageVariantExecutor")
+    @Timed("project.service")
+    public void generateVariants(String path, String filename) {
+        Path source = Paths.get(path, filename);
+        String format = formatOf(filename);
+        if (format == null || !ImageIO.getImageWritersByFormatName(format).hasNext()) {
+            logger.debug("No ImageIO writer for {}, serving original only", filename);
+            return;
+        }
+        try {
+            BufferedImage image = read(source);
+            if (image == null) {
+                return;
+            }
+            for (ImageVariant variant : ImageVariant.values()) {
+                Path target = Paths.get(path, variant.fileName(filename));
+                if (image.getWidth() <= variant.getWidth() || Files.exists(target)) {
+                    continue;
+                }
+                write(resize(image, variant.getWidth(), format), format, target);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not generate variants for {}: {}", filename, e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, String> variantUrls(String filename) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        if (filename == null) {
+            return urls;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            urls.put(variant.getKey(), imageBaseUrl + "/" + variant.fileName(filename));
+        }
+        return urls;
+    }
+
+    // Decodes at most at twice the largest variant width so huge uploads never land fully in the heap.
+    private BufferedImage read(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int subsampling = Math.max(1, width / (ImageVariant.DETAIL.getWidth() * 2));
+                if ((long) width * height / ((long) subsampling * subsampling) > MAX_SOURCE_PIXELS) {
+                    logger.warn("Skipping variants for {}: {}x{} is too large", source.getFileName(), width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage image, int width, String format) {
+        boolean keepAlpha = image.getColorModel().hasAlpha() && ("png".equals(format) || "gif".equals(format));
+        int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = image;
+        // Halve until close to the target; a single bilinear pass from far away aliases badly.
+        while (current.getWidth() / 2 >= width) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2, type);
+        }
+        int height = Math.max(1, (int) Math.round((double) current.getHeight() * width / current.getWidth()));
+        return draw(current, width, height, type);
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height, int type) {
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, String format, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            if (!ImageIO.write(image, format, temp.toFile())) {
+                throw new IOException("No writer for " + format);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private String formatOf(String filename) {
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        String extension = filename.substring(dot + 1).toLowerCase();
+        return "jpeg".equals(extension) ? "jpg" : extension;
+    }
+}
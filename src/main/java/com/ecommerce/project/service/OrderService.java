@@ -0,0 +1,7 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.OrderDTO;
+
+public interface OrderService {
+    OrderDTO placeOrder(String checkoutKey);
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.OrderItem;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.payload.OrderItemDTO;
+import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.InventoryRepository;
+import com.ecommerce.project.repository.OrderRepository;
+import com.ecommerce.project.service.flashsale.FlashSaleInventory;
+import com.ecommerce.project.util.AuthUtil;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+@Timed("project.service")
+@Service
+@AllArgsConstructor
+public class OrderServiceImpl implements OrderService {
+    private static final int MAX_CHECKOUT_KEY_LENGTH = 64;
+
+    private OrderRepository orderRepository;
+    private CartRepository cartRepository;
+    private InventoryRepository inventoryRepository;
+    private FlashSaleInventory flashSaleInventory;
+    private AuthUtil authUtil;
+
+    @Override
+    @Transactional
+    public OrderDTO placeOrder(String checkoutKey) {
+        if (checkoutKey == null || checkoutKey.isBlank() || checkoutKey.length() > MAX_CHECKOUT_KEY_LENGTH) {
+            throw new APIException("Checkout key must be between 1 and " + MAX_CHECKOUT_KEY_LENGTH + " characters");
+        }
+
+        User user = authUtil.loggedInUser();
+        Order existingOrder = orderRepository.findByUserUserIdAndCheckoutKey(user.getUserId(), checkoutKey);
+        if (existingOrder != null) {
+            return toOrderDTO(existingOrder);
+        }
+
+        Cart cart = cartRepository.findCartWithItemsByEmail(user.getEmail());
+        if (cart == null || cart.getCartItems().isEmpty()) {
+            throw new APIException("Cart is empty");
+        }
+
+        Order order = new Order();
+        order.setUser(user);
+        order.setEmail(user.getEmail());
+        order.setCheckoutKey(checkoutKey);
+        order.setOrderDate(Instant.now());
+        order.setOrderStatus("PLACED");
+
+        double totalAmount = 0;
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (CartItem cartItem : cart.getCartItems()) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setProduct(cartItem.getProduct());
+            orderItem.setProductName(cartItem.getProduct().getProductName());
+            orderItem.setQuantity(cartItem.getQuantity());
+            orderItem.setDiscount(cartItem.getDiscount());
+            orderItem.setOrderedProductPrice(cartItem.getPrice());
+            order.getOrderItems().add(orderItem);
+
+            totalAmount += cartItem.getPrice() * cartItem.getQuantity();
+            // Flash sale lines took their stock when they were reserved.
+            if (cartItem.isReserved()) {
+                continue;
+            }
+            quantities.merge(cartItem.getProduct().getProductId(), cartItem.getQuantity(), Integer::sum);
+        }
+        order.setTotalAmount(totalAmount);
+        // A concurrent retry with the same key fails here on the unique constraint, before any stock is taken.
+        Order savedOrder = orderRepository.save(order);
+
+        cart.getCartItems().clear();
+        cart.setTotalPrice(0.0);
+        // Write everything else first so the stock update is the last statement and the product rows stay
+        // locked only for the commit that follows it.
+        orderRepository.flush();
+
+        if (!flashSaleInventory.take(quantities) || !inventoryRepository.decrementStock(quantities)) {
+            throw new APIException("Not enough stock for one or more products in the cart");
+        }
+
+        return toOrderDTO(savedOrder);
+    }
+
+    private OrderDTO toOrderDTO(Order order) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setOrderId(order.getOrderId());
+        orderDTO.setEmail(order.getEmail());
+        orderDTO.setCheckoutKey(order.getCheckoutKey());
+        orderDTO.setOrderDate(order.getOrderDate());
+        orderDTO.setTotalAmount(order.getTotalAmount());
+        orderDTO.setOrderStatus(order.getOrderStatus());
+        orderDTO.setOrderItems(order.getOrderItems().stream()
+                .map(item -> new OrderItemDTO(item.getOrderItemId(),
+                        item.getProduct() == null ? null : item.getProduct().getProductId(),
+                        item.getProductName(), item.getQuantity(), item.getDiscount(), item.getOrderedProductPrice()))
+                .toList());
+        return orderDTO;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.RepricingResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface PricingService {
+
+    RepricingResponse discountCategory(Long categoryId, double discount);
+
+    RepricingResponse discountProducts(InputStream csv) throws IOException;
+}
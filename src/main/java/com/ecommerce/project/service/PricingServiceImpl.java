@@ -0,0 +1,110 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.payload.RepricingResponse;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.PricingRepository;
+import com.ecommerce.project.repository.PricingRepository.ProductPrices;
+import com.ecommerce.project.util.PriceUtils;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@Timed("project.service")
+@Service
+@AllArgsConstructor
+public class PricingServiceImpl implements PricingService {
+
+    private CategoryRepository categoryRepository;
+    private PricingRepository pricingRepository;
+
+    @Override
+    @Transactional
+    public RepricingResponse discountCategory(Long categoryId, double discount) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category", "categoryId", categoryId);
+        }
+        validateDiscount(discount, "discount");
+
+        ProductPrices prices = pricingRepository.findPricesByCategory(categoryId);
+        double[] discounts = new double[prices.size()];
+        Arrays.fill(discounts, discount);
+        return reprice(prices, discounts);
+    }
+
+    // One "productId,discount" pair per line, an optional header line and blank lines are skipped.
+    // When a product appears more than once the last line wins.
+    @Override
+    @Transactional
+    public RepricingResponse discountProducts(InputStream csv) throws IOException {
+        long[] productIds = new long[256];
+        double[] discounts = new double[256];
+        int size = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || (size == 0 && !Character.isDigit(line.charAt(0)))) {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                if (comma < 0) {
+                    throw new APIException("Line " + lineNumber + " must be productId,discount");
+                }
+                if (size == productIds.length) {
+                    productIds = Arrays.copyOf(productIds, size * 2);
+                    discounts = Arrays.copyOf(discounts, size * 2);
+                }
+                try {
+                    productIds[size] = Long.parseLong(line.substring(0, comma).strip());
+                    discounts[size] = Double.parseDouble(line.substring(comma + 1).strip());
+                } catch (NumberFormatException e) {
+                    throw new APIException("Line " + lineNumber + " must be productId,discount");
+                }
+                validateDiscount(discounts[size], "line " + lineNumber);
+                size++;
+            }
+        }
+        if (size == 0) {
+            throw new APIException("No discounts found");
+        }
+
+        ProductPrices prices = pricingRepository.findPrices(productIds, size);
+        double[] newDiscounts = new double[prices.size()];
+        for (int i = 0; i < size; i++) {
+            int index = prices.indexOf(productIds[i]);
+            if (index < 0) {
+                throw new ResourceNotFoundException("Product", "productId", productIds[i]);
+            }
+            newDiscounts[index] = discounts[i];
+        }
+        return reprice(prices, newDiscounts);
+    }
+
+    // Products are written in id order and carts repriced once for the whole set, not once per product.
+    private RepricingResponse reprice(ProductPrices prices, double[] discounts) {
+        int size = prices.size();
+        double[] specialPrices = new double[size];
+        PriceUtils.specialPrices(prices.prices(), discounts, specialPrices, size);
+        pricingRepository.updatePrices(prices.ids(), discounts, specialPrices, size);
+        int cartItems = pricingRepository.repriceCarts(prices.ids(), size);
+        return new RepricingResponse(size, cartItems);
+    }
+
+    private static void validateDiscount(double discount, String field) {
+        if (!(discount >= 0 && discount <= 100)) {
+            throw new APIException("Discount for " + field + " must be between 0 and 100");
+        }
+    }
+}
@@ -5,12 +5,15 @@ import com.ecommerce.project.payload.ProductResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 public interface ProductService {
 
     ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
-    ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+    ProductDTO getProduct(Long productId);
+
+    ProductResponse searchByCategory(Long categoryId, boolean includeDescendants, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
     ProductResponse searchByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
@@ -20,5 +23,9 @@ public interface ProductService {
 
     ProductDTO deleteProduct(Long productId);
 
+    ProductDTO updateFlashSale(Long productId, boolean enabled);
+
     ProductDTO updateProductImage(Long productId, MultipartFile image) throws IOException;
+
+    ProductDTO updateProductImage(Long productId, InputStream image) throws IOException;
 }
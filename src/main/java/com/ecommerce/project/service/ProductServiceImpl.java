@@ -2,50 +2,80 @@ package com.ecommerce.project.service;
 
 import com.ecommerce.project.exceptions.APIException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
-import com.ecommerce.project.model.Cart;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
-import com.ecommerce.project.payload.CartDTO;
 import com.ecommerce.project.payload.ProductDTO;
 import com.ecommerce.project.payload.ProductResponse;
 import com.ecommerce.project.repository.CartRepository;
 import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.CategoryTreeRepository;
 import com.ecommerce.project.repository.ProductRepository;
-import jakarta.transaction.Transactional;
+import com.ecommerce.project.service.flashsale.FlashSaleInventory;
+import com.ecommerce.project.util.PriceUtils;
+import com.ecommerce.project.util.TransactionUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+@Timed("project.service")
 @Service
 public class ProductServiceImpl implements ProductService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
+    private static final String DEFAULT_IMAGE = "default.png";
 
     private ProductRepository productRepository;
     private CategoryRepository categoryRepository;
+    private CategoryTreeRepository categoryTreeRepository;
     private CartRepository cartRepository;
     private CartService cartService;
     private ModelMapper modelMapper;
     private FileService fileService;
+    private ImageVariantService imageVariantService;
+    private FlashSaleInventory flashSaleInventory;
+    private AutocompleteService autocompleteService;
+    private TrendingService trendingService;
+    private TransactionTemplate transactionTemplate;
 
     @Value("${project.image}")
     private String path;
 
-    public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository, FileService fileService, ModelMapper modelMapper) {
+    public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository,
+                              CategoryTreeRepository categoryTreeRepository, CartRepository cartRepository, CartService cartService, FileService fileService,
+                              ImageVariantService imageVariantService, FlashSaleInventory flashSaleInventory,
+                              AutocompleteService autocompleteService, TrendingService trendingService,
+                              ModelMapper modelMapper, PlatformTransactionManager transactionManager) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.categoryTreeRepository = categoryTreeRepository;
+        this.cartRepository = cartRepository;
+        this.cartService = cartService;
         this.fileService = fileService;
+        this.imageVariantService = imageVariantService;
+        this.flashSaleInventory = flashSaleInventory;
+        this.autocompleteService = autocompleteService;
+        this.trendingService = trendingService;
         this.modelMapper = modelMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
         Sort sort = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
@@ -57,7 +87,18 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+    @Transactional(readOnly = true)
+    public ProductDTO getProduct(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+        trendingService.recordView(productId);
+        return toProductDTO(product);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductResponse searchByCategory(Long categoryId, boolean includeDescendants, Integer pageNumber,
+                                            Integer pageSize, String sortBy, String sortOrder) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
 
@@ -65,12 +106,15 @@ public class ProductServiceImpl implements ProductService {
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sort);
-        Page<Product> productPage = productRepository.findByCategory(category, pageDetails);
+        Page<Product> productPage = includeDescendants
+                ? productRepository.findByCategoryTree(categoryId, pageDetails)
+                : productRepository.findByCategory(category, pageDetails);
 
         return getProductResponse(productPage);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ProductResponse searchByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
         Sort sort = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
@@ -82,6 +126,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional
     public ProductDTO addProduct(Long categoryId, ProductDTO productDTO) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
@@ -92,15 +137,17 @@ public class ProductServiceImpl implements ProductService {
         }
 
         Product product = modelMapper.map(productDTO, Product.class);
-        product.setImage("default.png");
+        product.setImage(DEFAULT_IMAGE);
         product.setCategory(category);
-        double specialPrice = product.getPrice() - (product.getDiscount() * 0.01 * product.getPrice());
-        product.setSpecialPrice(specialPrice);
+        product.setSpecialPrice(PriceUtils.specialPrice(product.getPrice(), product.getDiscount()));
         Product savedProduct = productRepository.save(product);
-        return modelMapper.map(savedProduct, ProductDTO.class);
+        categoryTreeRepository.adjustProductCount(categoryId, 1);
+        autocompleteService.productChanged(savedProduct.getProductId(), savedProduct.getProductName());
+        return toProductDTO(savedProduct);
     }
 
     @Override
+    @Transactional
     public ProductDTO updateProduct(Long productId, ProductDTO productDTO) {
         Product savedProduct = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
@@ -109,24 +156,38 @@ public class ProductServiceImpl implements ProductService {
         savedProduct.setQuantity(productDTO.getQuantity());
         savedProduct.setPrice(productDTO.getPrice());
         savedProduct.setDiscount(productDTO.getDiscount());
-        double specialPrice = productDTO.getPrice() - (productDTO.getDiscount() * 0.01 * productDTO.getPrice());
-        savedProduct.setSpecialPrice(specialPrice);
+        savedProduct.setSpecialPrice(PriceUtils.specialPrice(productDTO.getPrice(), productDTO.getDiscount()));
 
         Product updatedProduct = productRepository.save(savedProduct);
+        autocompleteService.productChanged(productId, updatedProduct.getProductName());
 
-        List<Cart> carts = cartRepository.findCartsByProductId(productId);
-        List<CartDTO> cartDTOs = carts.stream()
-                .map(cart -> {
-                    CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-                    List<ProductDTO> products = cart.getCartItems().stream()
-                            .map(p -> modelMapper.map(p.getProduct(), ProductDTO.class))
-                            .toList();
-                    cartDTO.setProducts(products);
-                    return cartDTO;
-                }).toList();
-        cartDTOs.forEach(cart -> cartService.updateProductsInCarts(cart.getCartId(), productId));
+        cartRepository.findCartIdsByProductId(productId)
+                .forEach(cartId -> cartService.updateProductsInCarts(cartId, productId));
+
+        // A hand edited quantity is the new truth for a running flash sale.
+        if (updatedProduct.isFlashSale()) {
+            TransactionUtils.afterCommit(() -> flashSaleInventory.start(productId));
+        }
+
+        return toProductDTO(updatedProduct);
+    }
+
+    @Override
+    @Transactional
+    public ProductDTO updateFlashSale(Long productId, boolean enabled) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+        product.setFlashSale(enabled);
+        Product updatedProduct = productRepository.save(product);
 
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+        TransactionUtils.afterCommit(() -> {
+            if (enabled) {
+                flashSaleInventory.start(productId);
+            } else {
+                flashSaleInventory.end(productId);
+            }
+        });
+        return toProductDTO(updatedProduct);
     }
 
     @Override
@@ -135,30 +196,65 @@ public class ProductServiceImpl implements ProductService {
         Product savedProduct = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
-        List<Cart> carts = cartRepository.findCartsByProductId(productId);
-        carts.forEach(cart -> cartService.deleteProductFromCart(cart.getId(), productId));
+        cartRepository.findCartIdsByProductId(productId)
+                .forEach(cartId -> cartService.deleteProductFromCart(cartId, productId));
 
         productRepository.delete(savedProduct);
-        return modelMapper.map(savedProduct, ProductDTO.class);
+        categoryTreeRepository.adjustProductCount(savedProduct.getCategory().getCategoryId(), -1);
+        autocompleteService.productDeleted(productId);
+        releaseImage(savedProduct.getImage());
+        return toProductDTO(savedProduct);
     }
 
+    // Not transactional: the upload is streamed and hashed, possibly after waiting for a permit, before a short
+    // transaction points the product at it, so a slow client never holds a database connection.
     @Override
     public ProductDTO updateProductImage(Long productId, MultipartFile image) throws IOException {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+        requireProduct(productId);
+        return replaceImage(productId, fileService.uploadImage(path, image));
+    }
 
-        String filename = fileService.uploadImage(path, image);
+    @Override
+    public ProductDTO updateProductImage(Long productId, InputStream image) throws IOException {
+        requireProduct(productId);
+        return replaceImage(productId, fileService.uploadImage(path, image));
+    }
 
-        product.setImage(filename);
-        Product updatedProduct = productRepository.save(product);
+    private void requireProduct(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Product", "productId", productId);
+        }
+    }
 
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+    // The upload stays pinned until the update has committed or rolled back; a failed one leaves it unreferenced.
+    private ProductDTO replaceImage(Long productId, String filename) {
+        boolean committed = false;
+        try {
+            ProductDTO productDTO = transactionTemplate.execute(status -> {
+                Product product = productRepository.findById(productId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+                String previousImage = product.getImage();
+                product.setImage(filename);
+                Product updatedProduct = productRepository.save(product);
+                if (!filename.equals(previousImage)) {
+                    releaseImage(previousImage);
+                }
+                return toProductDTO(updatedProduct);
+            });
+            committed = true;
+            return productDTO;
+        } finally {
+            fileService.unpinImage(filename);
+            if (!committed) {
+                deleteIfUnused(filename);
+            }
+        }
     }
 
     private ProductResponse getProductResponse(Page<Product> productPage) {
         List<Product> products = productPage.getContent();
         List<ProductDTO> productDTOs = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
+                .map(this::toProductDTO)
                 .toList();
 
         ProductResponse response = new ProductResponse();
@@ -171,4 +267,27 @@ public class ProductServiceImpl implements ProductService {
 
         return response;
     }
+
+    // Image blobs are shared by content hash, so a file may only go once no product points at it.
+    private void releaseImage(String image) {
+        if (image == null || DEFAULT_IMAGE.equals(image)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> deleteIfUnused(image));
+    }
+
+    // The reference count is re-read under the blob's lock, so an upload of the same bytes cannot slip in between.
+    private void deleteIfUnused(String image) {
+        try {
+            fileService.deleteImageIfUnused(path, image, () -> productRepository.countByImage(image) == 0);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not delete unreferenced image {}: {}", image, e.getMessage());
+        }
+    }
+
+    private ProductDTO toProductDTO(Product product) {
+        ProductDTO productDTO = modelMapper.map(product, ProductDTO.class);
+        productDTO.setImageVariants(imageVariantService.variantUrls(product.getImage()));
+        return productDTO;
+    }
 }
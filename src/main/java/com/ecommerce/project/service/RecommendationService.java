@@ -0,0 +1,16 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.RecommendationDTO;
+
+import java.util.List;
+
+public interface RecommendationService {
+
+    List<RecommendationDTO> getRecommendations(Long productId, int limit);
+
+    void recordAddedToCart(Long productId, List<Long> cartProductIds);
+
+    void recordRemovedFromCart(Long productId, List<Long> cartProductIds);
+
+    void rebuild();
+}
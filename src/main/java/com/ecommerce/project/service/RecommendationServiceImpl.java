@@ -0,0 +1,144 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.RecommendationDTO;
+import com.ecommerce.project.repository.BasketLine;
+import com.ecommerce.project.repository.CartItemRepository;
+import com.ecommerce.project.repository.OrderRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.service.recommendation.CoOccurrenceModel;
+import com.ecommerce.project.util.TransactionUtils;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// "Frequently bought together" from the baskets we already have: every pair of products sharing a cart or an order
+// scores one. The model is rebuilt from the database on a schedule and kept current in between by the cart service,
+// so serving top-K is a scan of one product's counts in memory.
+@Timed("project.service")
+@Service
+public class RecommendationServiceImpl implements RecommendationService {
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationServiceImpl.class);
+
+    private final CartItemRepository cartItemRepository;
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxBasketItems;
+    // Held while streaming every basket from the database, where a monitor would pin a virtual thread's carrier.
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile CoOccurrenceModel model = new CoOccurrenceModel();
+
+    public RecommendationServiceImpl(CartItemRepository cartItemRepository, OrderRepository orderRepository,
+                                     ProductRepository productRepository, PlatformTransactionManager transactionManager,
+                                     @Value("${project.recommendations.max-basket-items}") int maxBasketItems) {
+        this.cartItemRepository = cartItemRepository;
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxBasketItems = maxBasketItems;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RecommendationDTO> getRecommendations(Long productId, int limit) {
+        if (productRepository.findById(productId).isEmpty()) {
+            throw new ResourceNotFoundException("Product", "productId", productId);
+        }
+        // One query for all recommended products, whatever the cache holds; deleted ones drop out here.
+        List<CoOccurrenceModel.Score> top = model.top(productId, limit);
+        List<Long> ids = top.stream().map(CoOccurrenceModel.Score::productId).toList();
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        return top.stream()
+                .filter(score -> products.containsKey(score.productId()))
+                .map(score -> toRecommendationDTO(products.get(score.productId()), score.count()))
+                .toList();
+    }
+
+    @Override
+    public void recordAddedToCart(Long productId, List<Long> cartProductIds) {
+        TransactionUtils.afterCommit(() -> adjust(productId, cartProductIds, 1));
+    }
+
+    @Override
+    public void recordRemovedFromCart(Long productId, List<Long> cartProductIds) {
+        TransactionUtils.afterCommit(() -> adjust(productId, cartProductIds, -1));
+    }
+
+    // Builds a fresh model and swaps it in; cart changes that land while it runs may be missed until the next build.
+    @Override
+    @Scheduled(fixedDelayString = "${project.recommendations.rebuild-interval}", scheduler = "rebuildScheduler")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            CoOccurrenceModel next = new CoOccurrenceModel();
+            int baskets = readOnlyTransaction.execute(status -> {
+                try (Stream<BasketLine> cartLines = cartItemRepository.streamCartLines();
+                     Stream<BasketLine> orderLines = orderRepository.streamOrderLines()) {
+                    return load(cartLines, next) + load(orderLines, next);
+                }
+            });
+            model = next;
+            logger.info("Rebuilt product recommendations from {} baskets in {} ms", baskets,
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Lines arrive ordered by basket; very large baskets only count their first maxBasketItems products.
+    private int load(Stream<BasketLine> lines, CoOccurrenceModel target) {
+        long[] products = new long[maxBasketItems];
+        int size = 0;
+        int baskets = 0;
+        Long basketId = null;
+        Iterator<BasketLine> iterator = lines.iterator();
+        while (iterator.hasNext()) {
+            BasketLine line = iterator.next();
+            if (!line.basketId().equals(basketId)) {
+                target.addBasket(products, size, 1);
+                basketId = line.basketId();
+                size = 0;
+                baskets++;
+            }
+            if (size < maxBasketItems) {
+                products[size++] = line.productId();
+            }
+        }
+        target.addBasket(products, size, 1);
+        return baskets;
+    }
+
+    private void adjust(Long productId, List<Long> cartProductIds, int delta) {
+        CoOccurrenceModel current = model;
+        for (Long other : cartProductIds) {
+            if (!other.equals(productId)) {
+                current.adjust(productId, other, delta);
+                current.adjust(other, productId, delta);
+            }
+        }
+    }
+
+    private static RecommendationDTO toRecommendationDTO(Product product, int score) {
+        return new RecommendationDTO(product.getProductId(), product.getProductName(), product.getImage(),
+                product.getPrice(), product.getSpecialPrice(), score);
+    }
+}
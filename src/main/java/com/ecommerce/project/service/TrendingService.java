@@ -0,0 +1,16 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.TrendingProductDTO;
+
+import java.util.List;
+
+public interface TrendingService {
+
+    List<TrendingProductDTO> getTrending(int limit);
+
+    void recordView(Long productId);
+
+    void recordAddedToCart(Long productId);
+
+    void decay();
+}
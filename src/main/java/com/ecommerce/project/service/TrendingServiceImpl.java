@@ -0,0 +1,81 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.TrendingProductDTO;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.service.trending.TrendingSketch;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+// "Trending now" from product views and cart adds, scored with exponential time decay: an event's weight halves
+// every half-life. Memory is the sketch plus a bounded candidate set whatever the number of distinct products, and
+// the scores are per instance.
+@Timed("project.service")
+@Service
+public class TrendingServiceImpl implements TrendingService {
+    // Fixed point scale so a single view survives several decay steps before rounding down to zero.
+    private static final long UNIT = 1 << 10;
+
+    private final ProductRepository productRepository;
+    private final TrendingSketch sketch;
+    private final long addToCartWeight;
+    private final double halfLifeNanos;
+    private long lastDecay = System.nanoTime();
+
+    public TrendingServiceImpl(ProductRepository productRepository, MeterRegistry meterRegistry,
+                               @Value("${project.trending.width}") int width,
+                               @Value("${project.trending.depth}") int depth,
+                               @Value("${project.trending.candidates}") int candidates,
+                               @Value("${project.trending.half-life}") Duration halfLife,
+                               @Value("${project.trending.add-to-cart-weight}") int addToCartWeight) {
+        this.productRepository = productRepository;
+        this.sketch = new TrendingSketch(width, depth, candidates);
+        this.addToCartWeight = addToCartWeight * UNIT;
+        this.halfLifeNanos = halfLife.toNanos();
+        Gauge.builder("project.trending.candidates", sketch, TrendingSketch::candidates)
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TrendingProductDTO> getTrending(int limit) {
+        // Products come from the second-level cache by id; deleted ones drop out here until their score decays.
+        return sketch.top(limit).stream()
+                .flatMap(score -> productRepository.findById(score.productId())
+                        .map(product -> toTrendingProductDTO(product, (double) score.estimate() / UNIT))
+                        .stream())
+                .toList();
+    }
+
+    @Override
+    public void recordView(Long productId) {
+        sketch.add(productId, UNIT);
+    }
+
+    @Override
+    public void recordAddedToCart(Long productId) {
+        sketch.add(productId, addToCartWeight);
+    }
+
+    // Decays by the time that actually passed, so a late or skipped tick does not change the half-life.
+    @Override
+    @Scheduled(fixedDelayString = "${project.trending.decay-interval}")
+    public synchronized void decay() {
+        long now = System.nanoTime();
+        sketch.decay(Math.pow(0.5, (now - lastDecay) / halfLifeNanos));
+        lastDecay = now;
+    }
+
+    private static TrendingProductDTO toTrendingProductDTO(Product product, double score) {
+        return new TrendingProductDTO(product.getProductId(), product.getProductName(), product.getImage(),
+                product.getPrice(), product.getSpecialPrice(), score);
+    }
+}
@@ -0,0 +1,273 @@
+package com.ecommerce.project.service.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Immutable typeahead index. Every word start of every name is one entry, packed as (suggestion << 32 | offset) in
+// a long[] sorted case-insensitively by the text from that offset, so the entries matching a prefix form one
+// contiguous range found by two binary searches. A segment tree over the range holds the most popular entry per
+// node, and the top N are peeled off with a small heap of sub-ranges: O(N log n) per lookup, no string copies.
+public final class PrefixIndex {
+    private final String[] names;
+    private final long[] ids;
+    private final byte[] types;
+    private final int[] popularity;
+    private final long[] entries;
+    private final int[] tree;
+    private final int leaves;
+
+    private PrefixIndex(String[] names, long[] ids, byte[] types, int[] popularity, long[] entries) {
+        this.names = names;
+        this.ids = ids;
+        this.types = types;
+        this.popularity = popularity;
+        this.entries = entries;
+        this.leaves = entries.length;
+        this.tree = new int[Math.max(2, 2 * leaves)];
+        for (int i = 0; i < leaves; i++) {
+            tree[leaves + i] = i;
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = prefix.strip();
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int from = lowerBound(normalized, false);
+        int to = lowerBound(normalized, true);
+        if (from >= to) {
+            return List.of();
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(limit);
+        int[] seen = new int[limit];
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> a[0] == b[0] ? 0 : better(a[0], b[0]) == a[0] ? -1 : 1);
+        ranges.add(new int[]{best(from, to), from, to});
+        while (!ranges.isEmpty() && suggestions.size() < limit) {
+            int[] range = ranges.poll();
+            int entry = range[0];
+            int suggestion = suggestion(entries[entry]);
+            // A name matching the prefix at two word starts has two entries; report it once.
+            if (!contains(seen, suggestions.size(), suggestion)) {
+                seen[suggestions.size()] = suggestion;
+                suggestions.add(new Suggestion(types[suggestion] == Builder.CATEGORY ? Type.CATEGORY : Type.PRODUCT,
+                        ids[suggestion], names[suggestion], popularity[suggestion]));
+            }
+            if (range[1] < entry) {
+                ranges.add(new int[]{best(range[1], entry), range[1], entry});
+            }
+            if (entry + 1 < range[2]) {
+                ranges.add(new int[]{best(entry + 1, range[2]), entry + 1, range[2]});
+            }
+        }
+        return suggestions;
+    }
+
+    // Rough retained size: the arrays plus one compact (Latin-1) String per name.
+    public long estimatedBytes() {
+        long bytes = arrayBytes(names.length, 4) + arrayBytes(ids.length, 8) + arrayBytes(types.length, 1)
+                + arrayBytes(popularity.length, 4) + arrayBytes(entries.length, 8) + arrayBytes(tree.length, 4);
+        for (String name : names) {
+            bytes += 24 + arrayBytes(name.length(), 1);
+        }
+        return bytes;
+    }
+
+    private static long arrayBytes(int length, int elementSize) {
+        return (16 + (long) length * elementSize + 7) & ~7L;
+    }
+
+    private int best(int from, int to) {
+        int result = -1;
+        for (int left = from + leaves, right = to + leaves; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                result = result < 0 ? tree[left] : better(result, tree[left]);
+                left++;
+            }
+            if ((right & 1) == 1) {
+                right--;
+                result = result < 0 ? tree[right] : better(result, tree[right]);
+            }
+        }
+        return result;
+    }
+
+    // Higher popularity first, then alphabetical, which is entry order.
+    private int better(int a, int b) {
+        int popularityA = popularity[suggestion(entries[a])];
+        int popularityB = popularity[suggestion(entries[b])];
+        if (popularityA != popularityB) {
+            return popularityA > popularityB ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    // First entry whose text, cut to the prefix length, compares >= prefix (or > prefix when after is set).
+    private int lowerBound(String prefix, boolean after) {
+        int low = 0;
+        int high = leaves;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareToPrefix(entries[mid], prefix);
+            if (cmp < 0 || (after && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareToPrefix(long entry, String prefix) {
+        String name = names[suggestion(entry)];
+        int offset = offset(entry);
+        int length = Math.min(name.length() - offset, prefix.length());
+        for (int i = 0; i < length; i++) {
+            int cmp = Character.compare(fold(name.charAt(offset + i)), fold(prefix.charAt(i)));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length == prefix.length() ? 0 : -1;
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int suggestion(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    private static int offset(long entry) {
+        return (int) entry;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+
+    public enum Type {
+        PRODUCT,
+        CATEGORY
+    }
+
+    public record Suggestion(Type type, long id, String name, int popularity) {
+    }
+
+    public static final class Builder {
+        private static final byte PRODUCT = 0;
+        private static final byte CATEGORY = 1;
+
+        private String[] names = new String[1024];
+        private long[] ids = new long[1024];
+        private byte[] types = new byte[1024];
+        private int[] popularity = new int[1024];
+        private long[] entries = new long[2048];
+        private int size;
+        private int entryCount;
+
+        private Builder() {
+        }
+
+        public Builder product(long id, String name, int popularity) {
+            return add(PRODUCT, id, name, popularity);
+        }
+
+        public Builder category(long id, String name, int popularity) {
+            return add(CATEGORY, id, name, popularity);
+        }
+
+        private Builder add(byte type, long id, String name, int score) {
+            if (name == null || name.isBlank()) {
+                return this;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+                types = Arrays.copyOf(types, size * 2);
+                popularity = Arrays.copyOf(popularity, size * 2);
+            }
+            names[size] = name;
+            ids[size] = id;
+            types[size] = type;
+            popularity[size] = score;
+            for (int offset = 0; offset < name.length(); offset++) {
+                if (Character.isLetterOrDigit(name.charAt(offset))
+                        && (offset == 0 || !Character.isLetterOrDigit(name.charAt(offset - 1)))) {
+                    if (entryCount == entries.length) {
+                        entries = Arrays.copyOf(entries, entryCount * 2);
+                    }
+                    entries[entryCount++] = (long) size << 32 | offset;
+                }
+            }
+            size++;
+            return this;
+        }
+
+        public PrefixIndex build() {
+            String[] finalNames = Arrays.copyOf(names, size);
+            long[] sorted = Arrays.copyOf(entries, entryCount);
+            mergeSort(sorted, new long[entryCount], 0, entryCount, finalNames);
+            return new PrefixIndex(finalNames, Arrays.copyOf(ids, size), Arrays.copyOf(types, size),
+                    Arrays.copyOf(popularity, size), sorted);
+        }
+
+        // Java has no primitive sort with a comparator; a plain merge sort keeps the entries unboxed.
+        private static void mergeSort(long[] values, long[] buffer, int from, int to, String[] names) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            mergeSort(values, buffer, from, mid, names);
+            mergeSort(values, buffer, mid, to, names);
+            if (compare(values[mid - 1], values[mid], names) <= 0) {
+                return;
+            }
+            System.arraycopy(values, from, buffer, from, to - from);
+            int left = from;
+            int right = mid;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < mid && compare(buffer[left], buffer[right], names) <= 0)) {
+                    values[i] = buffer[left++];
+                } else {
+                    values[i] = buffer[right++];
+                }
+            }
+        }
+
+        private static int compare(long a, long b, String[] names) {
+            String nameA = names[suggestion(a)];
+            String nameB = names[suggestion(b)];
+            int offsetA = offset(a);
+            int offsetB = offset(b);
+            int length = Math.min(nameA.length() - offsetA, nameB.length() - offsetB);
+            for (int i = 0; i < length; i++) {
+                int cmp = Character.compare(fold(nameA.charAt(offsetA + i)), fold(nameB.charAt(offsetB + i)));
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return Integer.compare(nameA.length() - offsetA, nameB.length() - offsetB);
+        }
+    }
+}
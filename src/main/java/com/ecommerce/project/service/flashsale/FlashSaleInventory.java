@@ -0,0 +1,201 @@
+package com.ecommerce.project.service.flashsale;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.InventoryRepository;
+import com.ecommerce.project.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Stock of flash sale products lives in sharded in-memory counters, so accepting or rejecting a reservation never
+// touches the product row. Accepted reservations are written in batches by ReservationWriter. The counters are
+// loaded from the database when a sale starts, on startup and whenever the stock is changed by hand, so the
+// database stays the source of truth. Counters are per instance: run a flash sale on a single instance.
+@Component
+public class FlashSaleInventory {
+    private final Map<Long, ShardedStock> stocks = new ConcurrentHashMap<>();
+    // Taken from a counter but not queued yet because the reserving transaction has not completed.
+    private final Map<Long, AtomicLong> inFlight = new ConcurrentHashMap<>();
+    // Acknowledged reservations the database refused, by cart, until the cart is next read.
+    private final Map<Long, Set<Long>> dropped = new ConcurrentHashMap<>();
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+    private final Counter droppedCounter;
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryRepository inventoryRepository;
+    private final FlashSaleProperties properties;
+    private final ReservationWriter writer;
+
+    public FlashSaleInventory(JdbcTemplate jdbcTemplate, InventoryRepository inventoryRepository,
+                              PlatformTransactionManager transactionManager, FlashSaleProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventoryRepository = inventoryRepository;
+        this.properties = properties;
+        this.writer = new ReservationWriter(jdbcTemplate, inventoryRepository,
+                new TransactionTemplate(transactionManager), this::dropped, this::duplicate, properties.getBatchSize());
+        Gauge.builder("project.flash-sale.pending", writer, ReservationWriter::size).register(meterRegistry);
+        this.droppedCounter = Counter.builder("project.flash-sale.dropped").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveSales() {
+        jdbcTemplate.queryForList("SELECT product_id FROM product WHERE flash_sale = true", Long.class)
+                .forEach(this::start);
+    }
+
+    // Returns false when sold out. The line is queued once the caller's transaction commits, so a cart created in
+    // the same transaction exists before the writer inserts into it.
+    public boolean reserve(Long cartId, Product product, int quantity) {
+        Long productId = product.getProductId();
+        if (writer.size() >= properties.getQueueCapacity()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Flash sale is busy, please retry");
+        }
+        if (!writer.claim(cartId, productId)) {
+            throw new APIException("Product " + product.getProductName() + " already exists in cart");
+        }
+        // Counted as in flight before taking, so a reload can only ever see too much reserved, never too little.
+        AtomicLong inFlightQuantity = inFlight.computeIfAbsent(productId, id -> new AtomicLong());
+        inFlightQuantity.addAndGet(quantity);
+        ShardedStock stock = stocks.computeIfAbsent(productId, this::load);
+        if (!stock.tryTake(quantity)) {
+            inFlightQuantity.addAndGet(-quantity);
+            writer.unclaim(cartId, productId);
+            return false;
+        }
+
+        ReservationWriter.Reservation reservation = new ReservationWriter.Reservation(cartId, productId, quantity,
+                product.getSpecialPrice(), product.getDiscount(), product.getSpecialPrice() * quantity);
+        TransactionUtils.afterCompletion(committed -> {
+            if (committed) {
+                writer.add(reservation);
+            } else {
+                // A reload while this was in flight already left the quantity out of the new counter.
+                ShardedStock current = stocks.get(productId);
+                if (current != null) {
+                    current.release(quantity);
+                }
+                writer.unclaim(cartId, productId);
+            }
+            inFlightQuantity.addAndGet(-quantity);
+        });
+        return true;
+    }
+
+    // Lines added before a sale started hold no reservation, so their checkout also has to come out of the counters.
+    public boolean take(Map<Long, Integer> quantities) {
+        List<Runnable> undo = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            ShardedStock stock = stocks.get(line.getKey());
+            if (stock == null) {
+                continue;
+            }
+            if (!stock.tryTake(line.getValue())) {
+                undo.forEach(Runnable::run);
+                return false;
+            }
+            undo.add(() -> stock.release(line.getValue()));
+        }
+        if (!undo.isEmpty()) {
+            TransactionUtils.afterCompletion(committed -> {
+                if (!committed) {
+                    undo.forEach(Runnable::run);
+                }
+            });
+        }
+        return true;
+    }
+
+    // A reserved line left the cart: its stock goes back to the product row and, once committed, to the counter.
+    public void release(Long productId, int quantity) {
+        inventoryRepository.incrementStock(productId, quantity);
+        TransactionUtils.afterCompletion(committed -> {
+            ShardedStock stock = stocks.get(productId);
+            if (committed && stock != null) {
+                stock.release(quantity);
+            }
+        });
+    }
+
+    public void start(Long productId) {
+        // Park the product on an empty counter while reloading so nothing is accepted against the old one.
+        stocks.put(productId, new ShardedStock(0, 1));
+        writer.flush();
+        stocks.put(productId, load(productId));
+    }
+
+    public void end(Long productId) {
+        stocks.put(productId, new ShardedStock(0, 1));
+        writer.flush();
+        stocks.remove(productId);
+    }
+
+    // Product ids of the cart's reservations that were acknowledged but could not be written, reported once.
+    public Set<Long> takeDropped(Long cartId) {
+        Set<Long> productIds = dropped.remove(cartId);
+        return productIds == null ? Set.of() : productIds;
+    }
+
+    public long available(Long productId) {
+        ShardedStock stock = stocks.get(productId);
+        return stock == null ? -1 : stock.available();
+    }
+
+    @Scheduled(fixedDelayString = "${project.flash-sale.flush-interval}")
+    public void flush() {
+        writer.flush();
+        for (Long productId : stale) {
+            stale.remove(productId);
+            if (stocks.containsKey(productId)) {
+                start(productId);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.flush();
+    }
+
+    // A reservation moves from in flight to pending to the product row, and each step adds to the next before
+    // leaving the previous one. Reading in that same order can count one twice, so the counter can only start
+    // low, never high.
+    private ShardedStock load(Long productId) {
+        AtomicLong inFlightQuantity = inFlight.get(productId);
+        long reserved = inFlightQuantity == null ? 0 : inFlightQuantity.get();
+        reserved += writer.pendingQuantity(productId);
+        Integer quantity = jdbcTemplate.queryForObject(
+                "SELECT quantity FROM product WHERE product_id = ?", Integer.class, productId);
+        return new ShardedStock(Math.max(0, (quantity == null ? 0 : quantity) - reserved), properties.getShards());
+    }
+
+    // The customer was told the add succeeded, so keep a notice for their cart. The counter disagreed with the
+    // database, so it is reloaded on the next flush rather than given the quantity back.
+    private void dropped(ReservationWriter.Reservation reservation) {
+        droppedCounter.increment();
+        dropped.computeIfAbsent(reservation.cartId(), id -> ConcurrentHashMap.newKeySet()).add(reservation.productId());
+        stale.add(reservation.productId());
+    }
+
+    // The cart already holds the product, so there is nothing to tell the customer; only the counter is reloaded.
+    private void duplicate(ReservationWriter.Reservation reservation) {
+        stale.add(reservation.productId());
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.project.service.flashsale;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "project.flash-sale")
+public class FlashSaleProperties {
+    private int shards = 16;
+    private int batchSize = 500;
+    private int queueCapacity = 20_000;
+    private Duration flushInterval = Duration.ofMillis(100);
+}
@@ -0,0 +1,141 @@
+package com.ecommerce.project.service.flashsale;
+
+import com.ecommerce.project.repository.InventoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Persists accepted reservations in batches: one transaction inserts the cart lines, adds to the cart totals and
+// takes the stock for the whole batch. If the batch fails each reservation is retried alone and the ones that
+// still fail are handed to the rejected callback, or to the duplicate one when the cart already had the line.
+class ReservationWriter {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationWriter.class);
+
+    private static final String INSERT_CART_ITEM =
+            "INSERT INTO cart_item (cart_id, product_id, quantity, price, discount, reserved) VALUES (?, ?, ?, ?, ?, true)";
+    private static final String ADD_TO_CART_TOTAL =
+            "UPDATE cart SET total_price = COALESCE(total_price, 0) + ?, version = version + 1 WHERE id = ?";
+
+    private final LinkedBlockingQueue<Reservation> queue = new LinkedBlockingQueue<>();
+    private final Set<Key> claimed = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> pendingQuantities = new ConcurrentHashMap<>();
+    // Not synchronized: a virtual thread blocked in the batch's JDBC calls would pin its carrier.
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Consumer<Reservation> rejected;
+    private final Consumer<Reservation> duplicate;
+    private final int batchSize;
+
+    ReservationWriter(JdbcTemplate jdbcTemplate, InventoryRepository inventoryRepository,
+                      TransactionTemplate transactionTemplate, Consumer<Reservation> rejected,
+                      Consumer<Reservation> duplicate, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventoryRepository = inventoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.rejected = rejected;
+        this.duplicate = duplicate;
+        this.batchSize = batchSize;
+    }
+
+    // Stops a cart from reserving the same product twice while its line is queued; the caller has already checked
+    // the lines of the cart it loaded. A line written and unclaimed after that load is caught by the unique insert.
+    boolean claim(Long cartId, Long productId) {
+        return claimed.add(new Key(cartId, productId));
+    }
+
+    void unclaim(Long cartId, Long productId) {
+        claimed.remove(new Key(cartId, productId));
+    }
+
+    void add(Reservation reservation) {
+        pendingQuantities.merge(reservation.productId(), (long) reservation.quantity(), Long::sum);
+        queue.add(reservation);
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    long pendingQuantity(Long productId) {
+        return pendingQuantities.getOrDefault(productId, 0L);
+    }
+
+    void flush() {
+        flushLock.lock();
+        try {
+            List<Reservation> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(batch));
+                } catch (RuntimeException e) {
+                    logger.warn("Writing {} flash sale reservations failed, retrying one at a time", batch.size(), e);
+                    batch.forEach(this::writeAlone);
+                }
+                batch.forEach(this::completed);
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeAlone(Reservation reservation) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(List.of(reservation)));
+        } catch (DuplicateKeyException e) {
+            logger.warn("Dropping flash sale reservation of product {} for cart {}, the cart already has it",
+                    reservation.productId(), reservation.cartId());
+            duplicate.accept(reservation);
+        } catch (RuntimeException e) {
+            logger.error("Dropping acknowledged flash sale reservation of {} x product {} for cart {}",
+                    reservation.quantity(), reservation.productId(), reservation.cartId(), e);
+            rejected.accept(reservation);
+        }
+    }
+
+    private void write(List<Reservation> batch) {
+        List<Object[]> items = new ArrayList<>(batch.size());
+        Map<Long, Double> cartTotals = new HashMap<>();
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (Reservation reservation : batch) {
+            items.add(new Object[]{reservation.cartId(), reservation.productId(), reservation.quantity(),
+                    reservation.price(), reservation.discount()});
+            cartTotals.merge(reservation.cartId(), reservation.total(), Double::sum);
+            quantities.merge(reservation.productId(), reservation.quantity(), Integer::sum);
+        }
+        jdbcTemplate.batchUpdate(INSERT_CART_ITEM, items);
+        jdbcTemplate.batchUpdate(ADD_TO_CART_TOTAL, cartTotals.entrySet().stream()
+                .map(total -> new Object[]{total.getValue(), total.getKey()})
+                .toList());
+        // The counters already guarantee the stock, this only fails if the database was changed behind their back.
+        if (!inventoryRepository.decrementStock(quantities)) {
+            throw new IllegalStateException("Not enough stock in the database for flash sale reservations");
+        }
+    }
+
+    private void completed(Reservation reservation) {
+        pendingQuantities.computeIfPresent(reservation.productId(),
+                (productId, quantity) -> quantity == reservation.quantity() ? null : quantity - reservation.quantity());
+        unclaim(reservation.cartId(), reservation.productId());
+    }
+
+    record Reservation(Long cartId, Long productId, int quantity, double price, double discount, double total) {
+    }
+
+    private record Key(Long cartId, Long productId) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.project.service.flashsale;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Stock split across independently CAS'd shards so concurrent reservations rarely contend on the same word.
+// Shards are padded onto separate cache lines; a thread starts at its own shard and moves on when it runs dry.
+class ShardedStock {
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray cells;
+    private final int shards;
+
+    ShardedStock(long stock, int shards) {
+        this.shards = shards;
+        this.cells = new AtomicLongArray(shards * PADDING);
+        for (int shard = 0; shard < shards; shard++) {
+            cells.set(shard * PADDING, stock / shards + (shard < stock % shards ? 1 : 0));
+        }
+    }
+
+    boolean tryTake(long amount) {
+        int start = home();
+        for (int i = 0; i < shards; i++) {
+            int cell = ((start + i) % shards) * PADDING;
+            long current;
+            while ((current = cells.get(cell)) >= amount) {
+                if (cells.compareAndSet(cell, current, current - amount)) {
+                    return true;
+                }
+            }
+        }
+        return amount > 1 && gather(start, amount);
+    }
+
+    // No single shard holds enough: collect the amount piecewise and hand it all back if the total falls short.
+    private boolean gather(int start, long amount) {
+        long[] taken = new long[shards];
+        long needed = amount;
+        for (int i = 0; i < shards && needed > 0; i++) {
+            int shard = (start + i) % shards;
+            int cell = shard * PADDING;
+            long current;
+            while ((current = cells.get(cell)) > 0) {
+                long part = Math.min(current, needed);
+                if (cells.compareAndSet(cell, current, current - part)) {
+                    taken[shard] = part;
+                    needed -= part;
+                    break;
+                }
+            }
+        }
+        if (needed == 0) {
+            return true;
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            if (taken[shard] > 0) {
+                cells.addAndGet(shard * PADDING, taken[shard]);
+            }
+        }
+        return false;
+    }
+
+    void release(long amount) {
+        cells.addAndGet(home() * PADDING, amount);
+    }
+
+    long available() {
+        long total = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            total += cells.get(shard * PADDING);
+        }
+        return total;
+    }
+
+    private int home() {
+        return (int) Math.floorMod(Thread.currentThread().threadId(), (long) shards);
+    }
+}
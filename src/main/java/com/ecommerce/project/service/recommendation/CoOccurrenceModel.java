@@ -0,0 +1,87 @@
+package com.ecommerce.project.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// For every product, how many baskets it shares with each other product. Pair counts live in one LongIntHashMap per
+// product, guarded by that map's monitor; only the per-product lookup goes through a boxed key.
+public class CoOccurrenceModel {
+    private final Map<Long, LongIntHashMap> neighbours = new ConcurrentHashMap<>();
+
+    // Counts every pair in the basket once in each direction.
+    public void addBasket(long[] products, int size, int delta) {
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (products[i] != products[j]) {
+                    adjust(products[i], products[j], delta);
+                    adjust(products[j], products[i], delta);
+                }
+            }
+        }
+    }
+
+    public void adjust(long product, long other, int delta) {
+        LongIntHashMap counts = delta > 0
+                ? neighbours.computeIfAbsent(product, id -> new LongIntHashMap())
+                : neighbours.get(product);
+        if (counts == null) {
+            return;
+        }
+        synchronized (counts) {
+            counts.addTo(other, delta);
+        }
+    }
+
+    public int count(long product, long other) {
+        LongIntHashMap counts = neighbours.get(product);
+        if (counts == null) {
+            return 0;
+        }
+        synchronized (counts) {
+            return counts.get(other);
+        }
+    }
+
+    // The k most frequent companions, highest count first and lower id first on ties. Keeps the best k in two small
+    // sorted arrays while scanning, so the cost is one pass over the product's neighbours.
+    public List<Score> top(long product, int k) {
+        LongIntHashMap counts = neighbours.get(product);
+        if (counts == null || k <= 0) {
+            return List.of();
+        }
+        long[] ids = new long[k];
+        int[] best = new int[k];
+        int[] size = {0};
+        synchronized (counts) {
+            counts.forEach((other, count) -> {
+                int filled = size[0];
+                if (filled == k && !better(count, other, best[k - 1], ids[k - 1])) {
+                    return;
+                }
+                int position = Math.min(filled, k - 1);
+                while (position > 0 && better(count, other, best[position - 1], ids[position - 1])) {
+                    best[position] = best[position - 1];
+                    ids[position] = ids[position - 1];
+                    position--;
+                }
+                best[position] = count;
+                ids[position] = other;
+                size[0] = Math.min(filled + 1, k);
+            });
+        }
+        List<Score> scores = new ArrayList<>(size[0]);
+        for (int i = 0; i < size[0]; i++) {
+            scores.add(new Score(ids[i], best[i]));
+        }
+        return scores;
+    }
+
+    private static boolean better(int count, long id, int otherCount, long otherId) {
+        return count > otherCount || (count == otherCount && id < otherId);
+    }
+
+    public record Score(long productId, int count) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.project.service.trending;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Heavy hitters over a decaying event stream in fixed memory. A Count-Min sketch estimates the score of any product
+// (never below the true score, above it by at most ~e/width of the total with high probability), and a candidate
+// set remembers the products that could be in the top K. Recording an event is one atomic add per row and, for
+// products already known or too small to matter, nothing else; no locks on the hot path.
+public class TrendingSketch {
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x85EBCA77C2B2AE63L};
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+    private final int capacity;
+    private final Set<Long> candidates = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private volatile long admissionThreshold;
+
+    public TrendingSketch(int width, int depth, int capacity) {
+        if (Integer.bitCount(width) != 1 || depth < 1 || depth > SEEDS.length || capacity < 1) {
+            throw new IllegalArgumentException("width must be a power of two, depth 1.." + SEEDS.length
+                    + " and capacity positive");
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counters = new AtomicLongArray(width * depth);
+        this.capacity = capacity;
+    }
+
+    public long add(long productId, long weight) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(productId, row), weight));
+        }
+        // Once the set is full only products scoring above the weakest kept candidate get in; the set may overshoot
+        // to twice its capacity before one caller trims it back.
+        if (estimate >= admissionThreshold && candidates.add(productId) && candidates.size() > capacity * 2) {
+            trim();
+        }
+        return estimate;
+    }
+
+    public long estimate(long productId) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(productId, row)));
+        }
+        return estimate;
+    }
+
+    public List<Score> top(int k) {
+        return scores().stream()
+                .filter(score -> score.estimate() > 0)
+                .limit(k)
+                .toList();
+    }
+
+    // Multiplies every counter by factor, cell by cell, so concurrent adds are never lost; an add racing the decay
+    // of its cell is simply decayed or not. Products whose score reached zero leave the candidate set.
+    public void decay(double factor) {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, value -> (long) (value * factor));
+        }
+        admissionThreshold = (long) (admissionThreshold * factor);
+        trim();
+    }
+
+    public int candidates() {
+        return candidates.size();
+    }
+
+    private void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Score> scores = scores();
+            for (int i = 0; i < scores.size(); i++) {
+                if (i >= capacity || scores.get(i).estimate() == 0) {
+                    candidates.remove(scores.get(i).productId());
+                }
+            }
+            admissionThreshold = scores.size() < capacity ? 0 : scores.get(capacity - 1).estimate();
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private List<Score> scores() {
+        List<Score> scores = new ArrayList<>(candidates.size());
+        for (Long productId : candidates) {
+            scores.add(new Score(productId, estimate(productId)));
+        }
+        scores.sort(Comparator.comparingLong(Score::estimate).reversed().thenComparingLong(Score::productId));
+        return scores;
+    }
+
+    private int index(long productId, int row) {
+        long hash = (productId ^ SEEDS[row]) * 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return row * (mask + 1) + ((int) hash & mask);
+    }
+
+    public record Score(long productId, long estimate) {
+    }
+}
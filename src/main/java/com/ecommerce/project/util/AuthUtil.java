@@ -14,6 +14,10 @@ public class AuthUtil {
 
     UserRepository userRepository;
 
+    public String loggedInUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
     public String loggedInEmail(){
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User user = userRepository.findByUsername(authentication.getName())
@@ -0,0 +1,18 @@
+package com.ecommerce.project.util;
+
+public final class PriceUtils {
+
+    private PriceUtils() {
+    }
+
+    public static double specialPrice(double price, double discount) {
+        return price - (discount * 0.01 * price);
+    }
+
+    // Over parallel arrays, so bulk repricing allocates nothing per product.
+    public static void specialPrices(double[] prices, double[] discounts, double[] specialPrices, int size) {
+        for (int i = 0; i < size; i++) {
+            specialPrices[i] = specialPrice(prices[i], discounts[i]);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Order lines keep the name they were sold under, so deleting an ordered product clears the reference instead of
+-- failing on the foreign key forever.
+alter table order_item add column product_name varchar(255);
+update order_item set product_name = (select p.product_name from product p where p.product_id = order_item.product_id);
+alter table order_item alter column product_name set not null;
+
+alter table order_item alter column product_id drop not null;
+alter table order_item drop constraint fk_order_item_product;
+alter table order_item add constraint fk_order_item_product foreign key (product_id) references product on delete set null;
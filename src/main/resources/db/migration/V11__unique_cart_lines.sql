@@ -0,0 +1,19 @@
+-- One line per cart and product, so a flash sale reservation racing a line that was just written fails on insert
+-- instead of being looked up first. Lines duplicated by earlier racing adds are dropped, along with their share of
+-- the cart total and any stock a reservation took for them.
+update cart set total_price = total_price - (
+    select coalesce(sum(d.price * d.quantity), 0) from cart_item d
+    where d.cart_id = cart.id
+      and d.cart_item_id not in (select min(cart_item_id) from cart_item group by cart_id, product_id))
+where id in (select cart_id from cart_item group by cart_id, product_id having count(*) > 1);
+
+update product set quantity = quantity + (
+    select coalesce(sum(d.quantity), 0) from cart_item d
+    where d.product_id = product.product_id and d.reserved = true
+      and d.cart_item_id not in (select min(cart_item_id) from cart_item group by cart_id, product_id))
+where product_id in (select product_id from cart_item group by cart_id, product_id having count(*) > 1);
+
+delete from cart_item where cart_item_id not in (select min(cart_item_id) from cart_item group by cart_id, product_id);
+
+drop index if exists ix_cart_item_cart_product;
+create unique index ix_cart_item_cart_product on cart_item (cart_id, product_id);
@@ -0,0 +1,83 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update). Existing databases are baselined at this
+-- version (spring.flyway.baseline-on-migrate), so this script only runs against an empty schema.
+
+create sequence product_seq start with 1 increment by 50;
+
+create table address (
+    address_id bigint generated by default as identity,
+    user_id bigint,
+    city varchar(255) not null,
+    country varchar(255) not null,
+    state varchar(255) not null,
+    street varchar(255) not null,
+    zip varchar(255) not null,
+    primary key (address_id)
+);
+
+create table cart (
+    total_price float(53),
+    id bigint generated by default as identity,
+    user_id bigint unique,
+    primary key (id)
+);
+
+create table cart_item (
+    discount float(53),
+    price float(53),
+    quantity integer,
+    cart_id bigint,
+    cart_item_id bigint generated by default as identity,
+    product_id bigint,
+    primary key (cart_item_id)
+);
+
+create table category (
+    category_id bigint generated by default as identity,
+    category_name varchar(255) not null,
+    primary key (category_id)
+);
+
+create table product (
+    discount float(53) not null,
+    price float(53) not null,
+    quantity integer,
+    special_price float(53) not null,
+    category_id bigint,
+    product_id bigint not null,
+    seller_id bigint,
+    description varchar(255) not null,
+    image varchar(255),
+    product_name varchar(255) not null,
+    primary key (product_id)
+);
+
+create table roles (
+    role_id integer generated by default as identity,
+    role_name varchar(20) unique check (role_name in ('ROLE_USER','ROLE_SELLER','ROLE_ADMIN')),
+    primary key (role_id)
+);
+
+create table user_role (
+    role_id integer not null,
+    user_id bigint not null,
+    primary key (role_id, user_id)
+);
+
+create table users (
+    user_id bigint generated by default as identity,
+    username varchar(20) not null,
+    email varchar(50) not null,
+    password varchar(120) not null,
+    primary key (user_id),
+    unique (username),
+    unique (email)
+);
+
+alter table address add constraint FK6i66ijb8twgcqtetl8eeeed6v foreign key (user_id) references users;
+alter table cart add constraint FKg5uhi8vpsuy0lgloxk2h4w5o6 foreign key (user_id) references users;
+alter table cart_item add constraint FK1uobyhgl1wvgt1jpccia8xxs3 foreign key (cart_id) references cart;
+alter table cart_item add constraint FKjcyd5wv4igqnw413rgxbfu4nv foreign key (product_id) references product;
+alter table product add constraint FK1mtsbur82frn64de7balymq9s foreign key (category_id) references category;
+alter table product add constraint FKnuvtfgcf3ohskgoyi6v1eh1jr foreign key (seller_id) references users;
+alter table user_role add constraint FKt7e7djp752sqn6w22i6ocqy6q foreign key (role_id) references roles;
+alter table user_role add constraint FKj345gk1bovqvfame88rcx7yyx foreign key (user_id) references users;
@@ -0,0 +1,20 @@
+-- Indexes for the hot lookups. PostgreSQL does not index foreign keys on its own.
+
+-- CartItemRepository.findCartItemByProductIdAndCartId, and loading a cart's items by cart_id.
+create index if not exists ix_cart_item_cart_product on cart_item (cart_id, product_id);
+-- CartRepository.findCartsByProductId and the cart_item -> product foreign key.
+create index if not exists ix_cart_item_product on cart_item (product_id);
+
+-- CartRepository.findCartByEmail: resolve users.email to user_id from the index alone, then cart.user_id (unique).
+create index if not exists ix_users_email_user on users (email, user_id);
+
+-- ProductRepository.findByCategory, default sort on product_id: read one page in index order.
+create index if not exists ix_product_category_product on product (category_id, product_id);
+-- ProductRepository.findByProductName.
+create index if not exists ix_product_name on product (product_name);
+-- ProductRepository.countByImage when releasing an image.
+create index if not exists ix_product_image on product (image);
+
+-- Loading User.roles and User.addresses by user_id.
+create index if not exists ix_user_role_user on user_role (user_id, role_id);
+create index if not exists ix_address_user on address (user_id);
@@ -0,0 +1,29 @@
+create table orders (
+    order_id bigint generated by default as identity,
+    user_id bigint not null,
+    email varchar(50) not null,
+    checkout_key varchar(64) not null,
+    order_date timestamp(6) with time zone not null,
+    total_amount float(53) not null,
+    order_status varchar(20) not null,
+    primary key (order_id),
+    -- Makes checkout idempotent: a retried request with the same key cannot create a second order.
+    constraint uk_orders_user_checkout_key unique (user_id, checkout_key)
+);
+
+create table order_item (
+    order_item_id bigint generated by default as identity,
+    order_id bigint not null,
+    product_id bigint not null,
+    quantity integer not null,
+    discount float(53),
+    ordered_product_price float(53) not null,
+    primary key (order_item_id)
+);
+
+alter table orders add constraint fk_orders_user foreign key (user_id) references users;
+alter table order_item add constraint fk_order_item_order foreign key (order_id) references orders;
+alter table order_item add constraint fk_order_item_product foreign key (product_id) references product;
+
+create index if not exists ix_order_item_order on order_item (order_id);
+create index if not exists ix_order_item_product on order_item (product_id);
@@ -0,0 +1,4 @@
+alter table product add column flash_sale boolean default false not null;
+
+-- Set on cart lines whose stock was already taken by a flash sale reservation, checkout must not take it again.
+alter table cart_item add column reserved boolean default false not null;
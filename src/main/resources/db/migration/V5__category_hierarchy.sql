@@ -0,0 +1,22 @@
+alter table category add column parent_id bigint;
+alter table category add constraint fk_category_parent foreign key (parent_id) references category;
+create index if not exists ix_category_parent on category (parent_id);
+
+-- Products in the category and all of its descendants, kept up to date by the service layer.
+alter table category add column product_count bigint default 0 not null;
+update category set product_count = (select count(*) from product p where p.category_id = category.category_id);
+
+-- One row for every (ancestor, descendant) pair at depth >= 1, so a whole subtree is a single range scan on the
+-- primary key and a category's ancestors one on the descendant index. A category is implicitly its own ancestor at
+-- depth 0 and roots have no rows, which keeps categories inserted outside the service valid.
+create table category_closure (
+    ancestor_id bigint not null,
+    descendant_id bigint not null,
+    depth integer not null,
+    primary key (ancestor_id, descendant_id)
+);
+alter table category_closure add constraint fk_category_closure_ancestor
+    foreign key (ancestor_id) references category on delete cascade;
+alter table category_closure add constraint fk_category_closure_descendant
+    foreign key (descendant_id) references category on delete cascade;
+create index if not exists ix_category_closure_descendant on category_closure (descendant_id, ancestor_id);
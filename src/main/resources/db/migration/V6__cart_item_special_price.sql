@@ -0,0 +1,5 @@
+-- Lines added to a cart used to store the list price while the cart total added the special price, and checkout
+-- charged the line price. Price every line at the product's special price, which is what every other writer of
+-- cart_item already stores, and restate the totals from the lines so a cart shows what checkout charges.
+update cart_item set price = (select p.special_price from product p where p.product_id = cart_item.product_id);
+update cart set total_price = coalesce((select sum(ci.price * ci.quantity) from cart_item ci where ci.cart_id = cart.id), 0);
@@ -0,0 +1,2 @@
+-- Optimistic version for Cart: total_price has writers outside Hibernate.
+alter table cart add column version bigint default 0 not null;
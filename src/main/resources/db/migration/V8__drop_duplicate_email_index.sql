@@ -0,0 +1,2 @@
+-- users.email is unique, and its constraint index already resolves CartRepository.findCartByEmail.
+drop index if exists ix_users_email_user;
@@ -0,0 +1,15 @@
+-- Databases baselined from the Hibernate schema skipped V1, so roles.role_name may lack its unique constraint and
+-- the seeder's ON CONFLICT DO NOTHING inserted a fresh set of roles on every boot. Keep the lowest id per name.
+insert into user_role (role_id, user_id)
+select distinct kept.role_id, ur.user_id
+from user_role ur
+join roles r on r.role_id = ur.role_id
+join (select role_name, min(role_id) as role_id from roles group by role_name) kept on kept.role_name = r.role_name
+where ur.role_id <> kept.role_id
+  and not exists (select 1 from user_role e where e.role_id = kept.role_id and e.user_id = ur.user_id);
+
+delete from user_role where role_id not in (select min(role_id) from roles group by role_name);
+delete from roles where role_id not in (select min(role_id) from roles group by role_name);
+
+-- On PostgreSQL V1's constraint index is named roles_role_name_key, so this only creates one where it is missing.
+create unique index if not exists roles_role_name_key on roles (role_name);
@@ -0,0 +1,70 @@
+package com.ecommerce.project.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DataSeederTests {
+
+    @Autowired
+    private DataSeeder dataSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void seedingIsIdempotent() {
+        String adminPassword = jdbcTemplate.queryForObject(
+                "SELECT password FROM users WHERE username = 'admin'", String.class);
+
+        dataSeeder.seed();
+        dataSeeder.seed();
+
+        assertEquals(3, count("SELECT COUNT(*) FROM roles"));
+        assertEquals(3, count("SELECT COUNT(*) FROM users WHERE username IN ('user1', 'seller1', 'admin')"));
+        assertEquals(3, count("SELECT COUNT(*) FROM user_role ur JOIN users u ON u.user_id = ur.user_id WHERE u.username = 'admin'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM user_role ur JOIN users u ON u.user_id = ur.user_id WHERE u.username = 'seller1'"));
+        assertEquals(adminPassword, jdbcTemplate.queryForObject(
+                "SELECT password FROM users WHERE username = 'admin'", String.class));
+    }
+
+    @Test
+    void duplicateRolesFromABaselinedSchemaAreMergedAndMadeUnique() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:baselined-roles;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate baselined = new JdbcTemplate(dataSource);
+        // The Hibernate-generated schema that existing databases were baselined from, without the unique constraint.
+        baselined.execute("CREATE TABLE roles (role_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "role_name VARCHAR(20))");
+        baselined.execute("CREATE TABLE user_role (role_id INTEGER NOT NULL REFERENCES roles, user_id BIGINT NOT NULL, " +
+                "PRIMARY KEY (role_id, user_id))");
+        baselined.batchUpdate("INSERT INTO roles (role_id, role_name) VALUES (?, ?)", List.of(
+                new Object[]{1, "ROLE_USER"}, new Object[]{2, "ROLE_ADMIN"},
+                new Object[]{3, "ROLE_USER"}, new Object[]{4, "ROLE_ADMIN"}));
+        baselined.batchUpdate("INSERT INTO user_role (role_id, user_id) VALUES (?, ?)", List.of(
+                new Object[]{1, 10}, new Object[]{3, 10}, new Object[]{3, 11}, new Object[]{4, 12}));
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V9__unique_role_names.sql")).execute(dataSource);
+        baselined.update("INSERT INTO roles (role_name) VALUES ('ROLE_USER') ON CONFLICT DO NOTHING");
+
+        assertEquals(List.of(1, 2), baselined.queryForList("SELECT role_id FROM roles ORDER BY role_id", Integer.class));
+        assertEquals(List.of("1:10", "1:11", "2:12"), baselined.queryForList(
+                "SELECT role_id || ':' || user_id FROM user_role ORDER BY user_id", String.class));
+        baselined.execute("DROP ALL OBJECTS");
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+}
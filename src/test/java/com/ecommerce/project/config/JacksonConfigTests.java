@@ -0,0 +1,39 @@
+package com.ecommerce.project.config;
+
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JacksonConfigTests {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void blackbirdIsRegistered() {
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId()));
+    }
+
+    @Test
+    void responsesSerializeTheSameAsWithPlainJackson() throws Exception {
+        ProductDTO product = new ProductDTO(1L, "Phone", "phone.png", "A phone for testing", 5,
+                100.0, 10.0, 90.0, false, Map.of("THUMB", "phone-thumb.png"));
+        ProductResponse response = new ProductResponse(List.of(product), 0, 50, 1L, 1, true);
+
+        assertEquals(new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(response)),
+                new ObjectMapper().readTree(objectMapper.writeValueAsString(response)));
+    }
+}
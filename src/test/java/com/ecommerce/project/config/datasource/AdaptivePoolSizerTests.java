@@ -0,0 +1,116 @@
+package com.ecommerce.project.config.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptivePoolSizerTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptivePoolProperties properties = new AdaptivePoolProperties();
+    private HikariDataSource dataSource;
+    private Timer acquire;
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:adaptive-" + UUID.randomUUID());
+        config.setPoolName("adaptive-test");
+        config.setMaximumPoolSize(10);
+        config.setMinimumIdle(1);
+        dataSource = new HikariDataSource(config);
+        // Stands in for the timer Hikari's Micrometer tracker records connection waits in.
+        acquire = Timer.builder("hikaricp.connections.acquire").tag("pool", "adaptive-test").register(meterRegistry);
+
+        properties.setMinSize(4);
+        properties.setMaxSize(12);
+        properties.setStep(2);
+        properties.setGrowAboveWait(Duration.ofMillis(5));
+        properties.setShrinkBelowWait(Duration.ofNanos(500_000));
+        properties.setShrinkAfterIntervals(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void growsByAStepWhileConnectionsAreWaitedForUpToTheMaximum() throws Exception {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(dataSource, meterRegistry, properties);
+        assertEquals(1, dataSource.getMinimumIdle());
+
+        acquire.record(Duration.ofMillis(20));
+        sizer.resize();
+        assertEquals(12, dataSource.getMaximumPoolSize());
+
+        acquire.record(Duration.ofMillis(20));
+        sizer.resize();
+        assertEquals(12, dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    void shrinksOnlyAfterEnoughQuietIntervalsDownToTheMinimum() throws Exception {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(dataSource, meterRegistry, properties);
+
+        acquire.record(Duration.ofNanos(100_000));
+        sizer.resize();
+        assertEquals(10, dataSource.getMaximumPoolSize());
+        sizer.resize();
+        assertEquals(8, dataSource.getMaximumPoolSize());
+
+        // A slow interval in between starts the count again.
+        sizer.resize();
+        acquire.record(Duration.ofMillis(1));
+        sizer.resize();
+        sizer.resize();
+        assertEquals(8, dataSource.getMaximumPoolSize());
+        sizer.resize();
+        assertEquals(6, dataSource.getMaximumPoolSize());
+
+        for (int i = 0; i < 10; i++) {
+            sizer.resize();
+        }
+        assertEquals(4, dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    void connectionsInUseKeepThePoolFromShrinking() throws Exception {
+        properties.setMaxSize(10);
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(dataSource, meterRegistry, properties);
+        Connection[] held = new Connection[9];
+        for (int i = 0; i < held.length; i++) {
+            held[i] = dataSource.getConnection();
+        }
+        try {
+            for (int i = 0; i < 5; i++) {
+                sizer.resize();
+            }
+            assertEquals(10, dataSource.getMaximumPoolSize());
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    void startsWithinTheBoundsAndRejectsInvalidOnes() throws Exception {
+        properties.setMaxSize(8);
+        new AdaptivePoolSizer(dataSource, meterRegistry, properties);
+        assertEquals(8, dataSource.getMaximumPoolSize());
+
+        properties.setMinSize(9);
+        assertThrows(IllegalStateException.class, () -> new AdaptivePoolSizer(dataSource, meterRegistry, properties));
+    }
+}
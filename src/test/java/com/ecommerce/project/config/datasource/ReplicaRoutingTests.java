@@ -0,0 +1,121 @@
+package com.ecommerce.project.config.datasource;
+
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.SuggestionDTO;
+import com.ecommerce.project.service.AutocompleteService;
+import com.ecommerce.project.service.CartService;
+import com.ecommerce.project.service.CatalogFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "project.datasource.replicas.enabled=true",
+        "project.datasource.replicas.targets[0].url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "project.datasource.replicas.targets[0].username=sa",
+        "project.datasource.replicas.targets[0].password="
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTests {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private CatalogFixture catalog;
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("REPLICA", databaseIn(transaction(true)));
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        assertEquals("PRIMARY", databaseIn(transaction(false)));
+    }
+
+    @Test
+    void readOnlyWorkInsideAWriteTransactionStaysOnThePrimary() {
+        String database = transaction(false).execute(status -> databaseIn(transaction(true)));
+        assertEquals("PRIMARY", database);
+    }
+
+    @Test
+    void cartReadsUseThePrimary() {
+        // The replica has no schema, so the cart is only found if the reads go to the primary.
+        String shopper = catalog.shopper("replica" + CatalogFixture.run());
+        Long cartId = catalog.cartId(shopper);
+
+        assertEquals(cartId, cartService.getCart(shopper + "@example.com", cartId).getCartId());
+        assertTrue(cartService.getAllCarts().stream().map(CartDTO::getCartId).anyMatch(cartId::equals));
+    }
+
+    @Test
+    void autocompleteRebuildReadsThePrimary() {
+        // A rebuild that read a lagging replica would drop overlay names its index does not have yet.
+        String name = "Replica " + CatalogFixture.run();
+        catalog.addCategory(name, null);
+
+        autocompleteService.rebuild();
+        assertTrue(autocompleteService.suggest(name, 10).stream().map(SuggestionDTO::getName).anyMatch(name::equals));
+    }
+
+    @Test
+    void unavailableReplicaFallsBackToThePrimary() throws Exception {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary", "sa", "");
+        DataSource missing = new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE", "sa", "");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(missing), Duration.ofSeconds(1));
+
+        assertTrue(routing.isHealthy(0));
+        try (Connection connection = routing.getConnection()) {
+            assertEquals("PRIMARY", databaseName(connection));
+        }
+        assertFalse(routing.isHealthy(0));
+
+        routing.checkHealth();
+        assertFalse(routing.isHealthy(0));
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private String databaseIn(TransactionTemplate template) {
+        return template.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private String databaseName(Connection connection) throws Exception {
+        try (ResultSet resultSet = connection.createStatement().executeQuery("SELECT DATABASE()")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
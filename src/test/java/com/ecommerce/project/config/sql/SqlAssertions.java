@@ -0,0 +1,36 @@
+package com.ecommerce.project.config.sql;
+
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Wrap a MockMvc call (or any code running SQL on the calling thread), e.g.
+// assertMaxStatements(3, () -> mockMvc.perform(get("/api/public/products")));
+public final class SqlAssertions {
+
+    private SqlAssertions() {
+    }
+
+    public static SqlStatementRecorder.Recording record(Executable action) {
+        try (SqlStatementRecorder.Recording recording = SqlStatementRecorder.start()) {
+            action.execute();
+            return recording;
+        } catch (Throwable e) {
+            return fail(e);
+        }
+    }
+
+    public static void assertMaxStatements(int max, Executable action) {
+        SqlStatementRecorder.Recording recording = record(action);
+        assertTrue(recording.count() <= max, "expected at most " + max + " SQL statements but ran "
+                + recording.count() + ", repeated: " + recording.repeated(2));
+    }
+
+    public static void assertNoRepeatedStatements(int threshold, Executable action) {
+        Map<String, Integer> repeated = record(action).repeated(threshold);
+        assertTrue(repeated.isEmpty(), "statements repeated " + threshold + " or more times: " + repeated);
+    }
+}
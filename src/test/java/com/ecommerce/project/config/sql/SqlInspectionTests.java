@@ -0,0 +1,126 @@
+package com.ecommerce.project.config.sql;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.ecommerce.project.config.sql.SqlAssertions.assertMaxStatements;
+import static com.ecommerce.project.config.sql.SqlAssertions.assertNoRepeatedStatements;
+import static com.ecommerce.project.config.sql.SqlAssertions.record;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlInspectionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(new Category(null, "Inspected Category", null));
+        categoryId = category.getCategoryId();
+        for (int i = 1; i <= 5; i++) {
+            Product product = new Product();
+            product.setProductName("Inspected " + i);
+            product.setDescription("Inspected product " + i);
+            product.setImage("default.png");
+            product.setQuantity(10);
+            product.setPrice(10);
+            product.setCategory(category);
+            productRepository.save(product);
+        }
+    }
+
+    @Test
+    void countsEveryStatementOfARequest() {
+        SqlStatementRecorder.Recording recording = record(() ->
+                mockMvc.perform(get("/api/public/categories/{categoryId}/products", categoryId))
+                        .andExpect(status().isOk()));
+
+        assertTrue(recording.count() > 0);
+    }
+
+    @Test
+    void flagsRepeatedStatementShapes() {
+        Map<String, Integer> repeated = record(() -> {
+            for (int i = 1; i <= 3; i++) {
+                productRepository.countByImage("inspected-" + i + ".png");
+            }
+        }).repeated(3);
+
+        assertEquals(1, repeated.size(), repeated.toString());
+        assertEquals(3, repeated.values().iterator().next());
+    }
+
+    @Test
+    void categoryProductsPageRunsWithoutLazyLoads() {
+        assertMaxStatements(3, () ->
+                mockMvc.perform(get("/api/public/categories/{categoryId}/products", categoryId))
+                        .andExpect(status().isOk()));
+        assertNoRepeatedStatements(2, () ->
+                mockMvc.perform(get("/api/public/categories/{categoryId}/products", categoryId))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void jdbcTemplateStatementsCountTowardsTheBudget() {
+        SqlStatementRecorder.Recording recording = record(() -> {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product", Integer.class);
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product WHERE category_id = ?", Integer.class, categoryId);
+            jdbcTemplate.batchUpdate("UPDATE product SET quantity = quantity WHERE product_id = ?",
+                    List.of(new Object[]{1L}, new Object[]{2L}));
+        });
+
+        assertEquals(3, recording.count(), recording.repeated(1).toString());
+        assertEquals(Set.of("SELECT COUNT(*) FROM product", "SELECT COUNT(*) FROM product WHERE category_id = ?",
+                "UPDATE product SET quantity = quantity WHERE product_id = ?"), recording.repeated(1).keySet());
+    }
+
+    @Test
+    void nestedRecordingsBothSeeTheStatements() {
+        try (SqlStatementRecorder.Recording outer = SqlStatementRecorder.start()) {
+            SqlStatementRecorder.Recording inner = record(() -> productRepository.count());
+            assertEquals(1, inner.count());
+            assertEquals(1, outer.count());
+        }
+    }
+
+    @Test
+    void assertionFailsWhenTheBudgetIsExceeded() {
+        assertMaxStatements(1, () -> productRepository.count());
+        assertThrows(AssertionError.class, () -> assertMaxStatements(1, () -> {
+            productRepository.count();
+            categoryRepository.count();
+        }));
+    }
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.service.FileServiceImpl;
+import com.ecommerce.project.service.ImageVariantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageControllerTests {
+    private static final byte[] CONTENT = new byte[100];
+
+    static {
+        for (int i = 0; i < CONTENT.length; i++) {
+            CONTENT[i] = (byte) i;
+        }
+    }
+
+    @TempDir
+    Path directory;
+
+    private ImageController imageController;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.write(directory.resolve("abc.png"), CONTENT);
+        imageController = new ImageController(new FileServiceImpl(new ImageVariantService() {
+            @Override
+            public void generateVariants(String path, String filename) {
+            }
+
+            @Override
+            public Map<String, String> variantUrls(String filename) {
+                return Map.of();
+            }
+        }, DataSize.ofMegabytes(1), 1, Duration.ofSeconds(1)));
+        ReflectionTestUtils.setField(imageController, "path", directory.toString());
+    }
+
+    @Test
+    void servesTheWholeImageWithValidators() throws Exception {
+        MockHttpServletResponse response = get("abc.png", Map.of());
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+        assertEquals(CONTENT.length, response.getContentLengthLong());
+        assertEquals("image/png", response.getContentType());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertTrue(response.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void servesASingleByteRange() throws Exception {
+        MockHttpServletResponse response = get("abc.png", Map.of(HttpHeaders.RANGE, "bytes=10-19"));
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), response.getStatus());
+        assertEquals("bytes 10-19/100", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(10, response.getContentLengthLong());
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 10, 20), response.getContentAsByteArray());
+
+        MockHttpServletResponse suffix = get("abc.png", Map.of(HttpHeaders.RANGE, "bytes=-5"));
+        assertEquals("bytes 95-99/100", suffix.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 95, 100), suffix.getContentAsByteArray());
+    }
+
+    @Test
+    void rangeBeyondTheEndIsNotSatisfiable() throws Exception {
+        MockHttpServletResponse response = get("abc.png", Map.of(HttpHeaders.RANGE, "bytes=100-"));
+
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value(), response.getStatus());
+        assertEquals("bytes */100", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void staleIfRangeOrSeveralRangesGetTheWholeImage() throws Exception {
+        MockHttpServletResponse stale = get("abc.png",
+                Map.of(HttpHeaders.RANGE, "bytes=10-19", HttpHeaders.IF_RANGE, "\"other\""));
+        assertEquals(HttpStatus.OK.value(), stale.getStatus());
+        assertArrayEquals(CONTENT, stale.getContentAsByteArray());
+
+        MockHttpServletResponse multiple = get("abc.png", Map.of(HttpHeaders.RANGE, "bytes=0-1,5-6"));
+        assertEquals(HttpStatus.OK.value(), multiple.getStatus());
+        assertArrayEquals(CONTENT, multiple.getContentAsByteArray());
+
+        String etag = get("abc.png", Map.of()).getHeader(HttpHeaders.ETAG);
+        MockHttpServletResponse current = get("abc.png",
+                Map.of(HttpHeaders.RANGE, "bytes=10-19", HttpHeaders.IF_RANGE, etag));
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), current.getStatus());
+    }
+
+    @Test
+    void conditionalGetIsAnsweredWithNotModified() throws Exception {
+        MockHttpServletResponse first = get("abc.png", Map.of());
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse byEtag = get("abc.png", Map.of(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), byEtag.getStatus());
+        assertEquals(0, byEtag.getContentAsByteArray().length);
+
+        MockHttpServletResponse byDate = get("abc.png",
+                Map.of(HttpHeaders.IF_MODIFIED_SINCE, first.getHeader(HttpHeaders.LAST_MODIFIED)));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), byDate.getStatus());
+
+        MockHttpServletResponse changed = get("abc.png", Map.of(HttpHeaders.IF_NONE_MATCH, "\"other\""));
+        assertEquals(HttpStatus.OK.value(), changed.getStatus());
+    }
+
+    @Test
+    void missingVariantFallsBackToTheOriginalWithAShortCacheLifetime() throws Exception {
+        MockHttpServletResponse response = get("abc-w150.png", Map.of());
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+        assertTrue(response.getHeader(HttpHeaders.CACHE_CONTROL).contains("max-age=60"),
+                response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    private MockHttpServletResponse get(String filename, Map<String, String> headers) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/" + filename);
+        headers.forEach(request::addHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        imageController.getImage(filename, request, response);
+        return response;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.project.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+final class LatencyReport {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Step> steps = new ConcurrentSkipListMap<>();
+    private volatile long startNanos = System.nanoTime();
+
+    void record(String step, long startNanos, boolean success) {
+        Step stats = steps.computeIfAbsent(step, name -> new Step());
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        stats.latency.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    void reset() {
+        steps.clear();
+        startNanos = System.nanoTime();
+    }
+
+    long count() {
+        return steps.values().stream().mapToLong(step -> step.latency.getTotalCount()).sum();
+    }
+
+    long errors() {
+        return steps.values().stream().mapToLong(step -> step.errors.sum()).sum();
+    }
+
+    Duration p99(String step) {
+        Step stats = steps.get(step);
+        return stats == null ? Duration.ZERO : Duration.ofNanos(
+                TimeUnit.MICROSECONDS.toNanos(stats.latency.getValueAtPercentile(99)));
+    }
+
+    Iterable<String> stepNames() {
+        return steps.keySet();
+    }
+
+    String format() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        StringBuilder report = new StringBuilder(String.format("%-18s %8s %7s %8s %9s %9s %9s %9s%n",
+                "step", "count", "errors", "rps", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        steps.forEach((name, stats) -> {
+            Histogram latency = stats.latency.copy();
+            report.append(String.format("%-18s %8d %7d %8.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    name, latency.getTotalCount(), stats.errors.sum(), latency.getTotalCount() / seconds,
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(95)),
+                    millis(latency.getValueAtPercentile(99)), millis(latency.getMaxValue())));
+        });
+        report.append(String.format("%-18s %8d %7d %8.1f%n", "total", count(), errors(), count() / seconds));
+        return report.toString();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Step {
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.project.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+final class OpenLoadGenerator {
+
+    private OpenLoadGenerator() {
+    }
+
+    // Arrivals follow a fixed timeline and each one is handed its intended start time, so a slow server shows up
+    // as latency instead of quietly lowering the offered rate (coordinated omission).
+    static void run(double ratePerSecond, Duration duration, LongConsumer arrival) {
+        long interval = (long) (1_000_000_000L / ratePerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long intended = start; intended < end; intended += interval) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long scheduled = intended;
+                executor.execute(() -> arrival.accept(scheduled));
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.ecommerce.project.loadtest;
+
+import com.ecommerce.project.model.AppRole;
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.Role;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.repository.RoleRepository;
+import com.ecommerce.project.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Excluded from the normal build, run with: mvn -Ploadtest test -Dloadtest.rate=100 -Dloadtest.duration=60
+// Uses the embedded H2 stand-in by default. To run against a local Postgres add
+// -Dspring.datasource.url=jdbc:postgresql://localhost:5432/ecommerce -Dspring.datasource.username=...
+// -Dspring.datasource.password=... -Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "project.rate-limit.enabled=false")
+@ActiveProfiles("test")
+class StorefrontLoadTests {
+    private static final Logger logger = LoggerFactory.getLogger(StorefrontLoadTests.class);
+    private static final String SHOPPER_PASSWORD = "shopperPass";
+    private static final String[] KEYWORDS = {"phone", "laptop", "camera", "watch", "desk", "lamp"};
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${loadtest.rate:20}")
+    private double rate;
+
+    @Value("${loadtest.duration:30}")
+    private int durationSeconds;
+
+    @Value("${loadtest.warmup:10}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.products:500}")
+    private int productCount;
+
+    @Value("${loadtest.shoppers:50}")
+    private int shopperCount;
+
+    @Value("${loadtest.mix.browse:70}")
+    private int browseWeight;
+
+    @Value("${loadtest.mix.cart:20}")
+    private int cartWeight;
+
+    @Value("${loadtest.mix.signin:10}")
+    private int signinWeight;
+
+    @Value("${loadtest.max-error-rate:0.01}")
+    private double maxErrorRate;
+
+    @Value("${loadtest.max-p99-ms:2000}")
+    private long maxP99Millis;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final LatencyReport report = new LatencyReport();
+
+    private List<Long> categoryIds;
+    private List<Long> productIds;
+    private List<Shopper> shoppers;
+    private final AtomicInteger nextShopper = new AtomicInteger();
+
+    @BeforeEach
+    void seed() {
+        List<User> users = new TransactionTemplate(transactionManager).execute(status -> seedCatalog());
+        shoppers = new ArrayList<>();
+        for (User user : users) {
+            shoppers.add(new Shopper(user.getUsername(), signIn(user.getUsername()), new AtomicInteger()));
+        }
+    }
+
+    private List<User> seedCatalog() {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            Category category = new Category();
+            category.setCategoryName("Load category " + i);
+            categories.add(category);
+        }
+        categoryIds = categoryRepository.saveAll(categories).stream().map(Category::getCategoryId).toList();
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= productCount; i++) {
+            Product product = new Product();
+            String keyword = KEYWORDS[i % KEYWORDS.length];
+            product.setProductName(keyword + " " + i);
+            product.setDescription("Load test " + keyword + " number " + i);
+            product.setImage("default.png");
+            product.setQuantity(1_000_000);
+            product.setPrice(10 + i % 200);
+            product.setDiscount(i % 30);
+            product.setSpecialPrice(product.getPrice() - product.getPrice() * product.getDiscount() / 100);
+            product.setCategory(categories.get(i % categories.size()));
+            products.add(product);
+        }
+        productIds = productRepository.saveAll(products).stream().map(Product::getProductId).toList();
+
+        Role userRole = roleRepository.findByRoleName(AppRole.ROLE_USER).orElseThrow();
+        String password = passwordEncoder.encode(SHOPPER_PASSWORD);
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= shopperCount; i++) {
+            User user = new User("shopper" + i, "shopper" + i + "@example.com", password);
+            user.getRoles().add(userRole);
+            users.add(user);
+        }
+        // Every shopper starts with a cart so concurrent first adds cannot race to create two.
+        List<Cart> carts = new ArrayList<>();
+        for (User user : userRepository.saveAll(users)) {
+            Cart cart = new Cart();
+            cart.setUser(user);
+            carts.add(cart);
+        }
+        cartRepository.saveAll(carts);
+        return users;
+    }
+
+    @Test
+    void storefrontUnderLoad() throws IOException {
+        OpenLoadGenerator.run(rate, Duration.ofSeconds(warmupSeconds), this::arrival);
+        report.reset();
+        OpenLoadGenerator.run(rate, Duration.ofSeconds(durationSeconds), this::arrival);
+
+        String summary = String.format("rate=%.0f/s duration=%ds products=%d shoppers=%d mix=browse:%d,cart:%d,signin:%d%n%s",
+                rate, durationSeconds, productCount, shopperCount, browseWeight, cartWeight, signinWeight, report.format());
+        logger.info("Load test report\n{}", summary);
+        Path file = Path.of("target", "loadtest", "report.txt");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, summary);
+
+        assertTrue(report.count() > 0, "no requests were completed");
+        assertTrue(report.errors() <= report.count() * maxErrorRate, "error rate above " + maxErrorRate + "\n" + summary);
+        for (String step : report.stepNames()) {
+            assertTrue(report.p99(step).toMillis() <= maxP99Millis, step + " p99 above " + maxP99Millis + "ms\n" + summary);
+        }
+    }
+
+    private void arrival(long intendedStart) {
+        int pick = ThreadLocalRandom.current().nextInt(browseWeight + cartWeight + signinWeight);
+        if (pick < browseWeight) {
+            browse(intendedStart);
+        } else if (pick < browseWeight + cartWeight) {
+            shop(intendedStart);
+        } else {
+            signInScenario(intendedStart);
+        }
+    }
+
+    private void browse(long intendedStart) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pages = Math.max(1, productCount / 20);
+        switch (random.nextInt(3)) {
+            case 0 -> send("products", intendedStart,
+                    get("/api/public/products?pageNumber=" + random.nextInt(pages) + "&pageSize=20"), null);
+            case 1 -> send("category-products", intendedStart,
+                    get("/api/public/categories/" + categoryIds.get(random.nextInt(categoryIds.size())) + "/products"), null);
+            default -> send("keyword-search", intendedStart,
+                    get("/api/public/products/keyword/" + KEYWORDS[random.nextInt(KEYWORDS.length)]), null);
+        }
+    }
+
+    // Each shopper walks the catalog in its own order so an add never hits a product already in its cart.
+    private void shop(long intendedStart) {
+        Shopper shopper = shoppers.get(Math.floorMod(nextShopper.getAndIncrement(), shoppers.size()));
+        int index = shopper.added().getAndIncrement();
+        Long productId = productIds.get(Math.floorMod(shopper.username().hashCode() + index, productIds.size()));
+        if (send("cart-add", intendedStart,
+                request("/api/carts/products/" + productId + "/quantity/1").POST(HttpRequest.BodyPublishers.noBody()),
+                shopper.cookie()) != null) {
+            send("cart-get", System.nanoTime(), get("/api/carts/users/cart"), shopper.cookie());
+            send("cart-update", System.nanoTime(),
+                    request("/api/carts/products/" + productId + "/quantity/add").PUT(HttpRequest.BodyPublishers.noBody()),
+                    shopper.cookie());
+        }
+    }
+
+    private void signInScenario(long intendedStart) {
+        Shopper shopper = shoppers.get(ThreadLocalRandom.current().nextInt(shoppers.size()));
+        send("signin", intendedStart, signInRequest(shopper.username()), null);
+    }
+
+    private String signIn(String username) {
+        HttpResponse<Void> response = execute(signInRequest(username), null);
+        if (response == null || response.statusCode() != 200) {
+            throw new IllegalStateException("Sign in failed for " + username);
+        }
+        String cookie = response.headers().firstValue("Set-Cookie").orElseThrow();
+        return cookie.substring(0, cookie.indexOf(';'));
+    }
+
+    private HttpRequest.Builder signInRequest(String username) {
+        return request("/api/auth/signin")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + SHOPPER_PASSWORD + "\"}"));
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept-Encoding", "gzip");
+    }
+
+    private HttpResponse<Void> send(String step, long startNanos, HttpRequest.Builder request, String cookie) {
+        HttpResponse<Void> response = execute(request, cookie);
+        boolean success = response != null && response.statusCode() < 400;
+        report.record(step, startNanos, success);
+        return success ? response : null;
+    }
+
+    private HttpResponse<Void> execute(HttpRequest.Builder request, String cookie) {
+        if (cookie != null) {
+            request.header("Cookie", cookie);
+        }
+        try {
+            return client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private record Shopper(String username, String cookie, AtomicInteger added) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Category;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static com.ecommerce.project.config.sql.SqlAssertions.record;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryIndexTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void cartItemLookupUsesCompositeIndex() {
+        assertUsesIndex("SELECT * FROM cart_item WHERE product_id = 1 AND cart_id = 2",
+                "IX_CART_ITEM_CART_PRODUCT");
+    }
+
+    @Test
+    void cartByEmailResolvesUserFromIndex() {
+        String plan = explain("SELECT c.* FROM cart c JOIN users u ON u.user_id = c.user_id WHERE u.email = 'a@example.com'");
+        // The unique constraint on users.email finds the user, the unique cart.user_id then finds the cart.
+        assertTrue(Pattern.compile("/\\* PUBLIC\\.\\w+: EMAIL = 'a@example.com' \\*/").matcher(plan).find(), plan);
+        assertTrue(Pattern.compile("/\\* PUBLIC\\.\\w+: USER_ID = U.USER_ID \\*/").matcher(plan).find(), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void productsByCategoryAreReadInIndexOrder() {
+        Category category = categoryRepository.save(new Category(null, "Indexed Category", null));
+        String sql = record(() -> productRepository.findByCategory(category,
+                PageRequest.of(0, 50, Sort.by("productId").ascending()))).repeated(1).keySet().stream()
+                .filter(statement -> statement.contains("order by"))
+                .findFirst().orElseThrow();
+
+        String plan = explain(sql, category.getCategoryId(), 50);
+        assertTrue(plan.contains("CATEGORY_ID = ?1"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+        // H2 indexes the foreign key on its own and prefers that index, and it only reports a sorted scan when the
+        // ORDER BY names the leading column, so it cannot show the plan PostgreSQL picks. Check instead that the
+        // page Hibernate asks for is exactly the order of the migrated index once category_id is fixed.
+        assertTrue(sql.contains(" where p1_0.category_id=? order by p1_0.product_id "), sql);
+        assertEquals(List.of("CATEGORY_ID", "PRODUCT_ID"), jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.index_columns WHERE index_name = ? ORDER BY ordinal_position",
+                String.class, "IX_PRODUCT_CATEGORY_PRODUCT"));
+    }
+
+    @Test
+    void productByNameUsesIndex() {
+        assertUsesIndex("SELECT * FROM product WHERE product_name = 'Phone'", "IX_PRODUCT_NAME");
+    }
+
+    @Test
+    void productsByImageUseIndex() {
+        assertUsesIndex("SELECT COUNT(*) FROM product WHERE image = 'a.png'", "IX_PRODUCT_IMAGE");
+    }
+
+    private void assertUsesIndex(String sql, String index) {
+        String plan = explain(sql);
+        assertTrue(plan.contains(index), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+}
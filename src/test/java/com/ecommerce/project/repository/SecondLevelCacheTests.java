@@ -0,0 +1,120 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.AppRole;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void repeatedCategoryLookupsStayInMemory() {
+        Long categoryId = categoryRepository.save(new Category(null, "Cached Category", null)).getCategoryId();
+        categoryRepository.findById(categoryId);
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(categoryRepository.findById(categoryId).isPresent());
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(3, statistics.getDomainDataRegionStatistics("category").getHitCount());
+    }
+
+    @Test
+    void categoryUpdatesAndDeletesAreVisibleThroughTheCache() {
+        Category category = categoryRepository.save(new Category(null, "Before Rename", null));
+        categoryRepository.findById(category.getCategoryId());
+
+        category.setCategoryName("After Rename");
+        categoryRepository.save(category);
+        statistics.clear();
+        assertEquals("After Rename", categoryRepository.findById(category.getCategoryId()).orElseThrow().getCategoryName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        categoryRepository.deleteById(category.getCategoryId());
+        assertTrue(categoryRepository.findById(category.getCategoryId()).isEmpty());
+    }
+
+    @Test
+    void categoryPagesUseTheQueryCacheUntilTheTableChanges() {
+        categoryRepository.save(new Category(null, "Paged Category", null));
+        categoryRepository.findAll(PageRequest.of(0, 10));
+        statistics.clear();
+
+        categoryRepository.findAll(PageRequest.of(0, 10));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+
+        categoryRepository.save(new Category(null, "Another Paged Category", null));
+        statistics.clear();
+        categoryRepository.findAll(PageRequest.of(0, 10));
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+    }
+
+    @Test
+    void roleLookupsByNameStayInMemory() {
+        roleRepository.findByRoleName(AppRole.ROLE_USER).orElseThrow();
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            roleRepository.findByRoleName(AppRole.ROLE_USER).orElseThrow();
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(3, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void repeatedProductLookupsHitTheProductRegion() {
+        Category category = categoryRepository.save(new Category(null, "Product Category", null));
+        Product product = new Product();
+        product.setProductName("Cached Product");
+        product.setDescription("Product kept in the second-level cache");
+        product.setQuantity(10);
+        product.setPrice(100);
+        product.setCategory(category);
+        Long productId = productRepository.save(product).getProductId();
+        productRepository.findById(productId);
+        statistics.clear();
+
+        productRepository.findById(productId);
+
+        assertEquals(1, statistics.getDomainDataRegionStatistics("product").getHitCount());
+        assertEquals(0, statistics.getDomainDataRegionStatistics("product").getMissCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.project.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WebSecurityConfigTests {
+
+    @Autowired
+    private FilterChainProxy springSecurityFilterChain;
+
+    @Value("${management.server.port}")
+    private int managementPort;
+
+    @Test
+    void prometheusIsOpenOnlyOnTheManagementPort() throws Exception {
+        assertTrue(reachesEndpoint("/actuator/prometheus", managementPort));
+        assertFalse(reachesEndpoint("/actuator/prometheus", 8080));
+        assertFalse(reachesEndpoint("/actuator/metrics", managementPort));
+        assertTrue(reachesEndpoint("/actuator/health", 8080));
+    }
+
+    private boolean reachesEndpoint(String uri, int port) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setServletPath(uri);
+        request.setLocalPort(port);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean reached = new AtomicBoolean();
+        springSecurityFilterChain.doFilter(request, response, (req, res) -> reached.set(true));
+        if (!reached.get()) {
+            assertEquals(401, response.getStatus());
+        }
+        return reached.get();
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.project.security.jwt;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthTokenFilterTests {
+
+    @Autowired
+    private AuthTokenFilter authTokenFilter;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Value("${spring.ecom.app.jwtCookieName}")
+    private String jwtCookieName;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void publicUrlsAreNotAuthenticatedEvenWithAToken() throws Exception {
+        assertNull(authenticationSeenBy("/api/public/products"));
+        assertNull(authenticationSeenBy("/api/public/products/keyword/phone"));
+        assertNull(authenticationSeenBy("/images/default.png"));
+        assertNull(authenticationSeenBy("/actuator/health"));
+    }
+
+    @Test
+    void everythingElseIsAuthenticatedFromTheCookie() throws Exception {
+        assertEquals("user1", authenticationSeenBy("/api/carts/users/cart").getName());
+        assertEquals("user1", authenticationSeenBy("/api/admin/categories").getName());
+        assertEquals("user1", authenticationSeenBy("/actuator/metrics").getName());
+    }
+
+    private Authentication authenticationSeenBy(String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setServletPath(uri);
+        request.setCookies(new Cookie(jwtCookieName, jwtUtils.generateTokenFromUsername("user1")));
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        authTokenFilter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seen.set(SecurityContextHolder.getContext().getAuthentication()));
+        SecurityContextHolder.clearContext();
+        return seen.get();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.project.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTests {
+    private final RateLimitFilter filter = new RateLimitFilter(properties(), new ObjectMapper());
+
+    @Test
+    void requestsOverTheLimitGet429WithRetryAfter() throws Exception {
+        assertEquals(HttpStatus.OK.value(), signin("10.0.0.1").getStatus());
+        assertEquals(HttpStatus.OK.value(), signin("10.0.0.1").getStatus());
+
+        MockHttpServletResponse rejected = signin("10.0.0.1");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        assertEquals("30", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, rejected.getContentType());
+        assertTrue(rejected.getContentAsString().contains("retry after 30 seconds"), rejected.getContentAsString());
+
+        // Other clients and other routes have their own buckets.
+        assertEquals(HttpStatus.OK.value(), signin("10.0.0.2").getStatus());
+        assertEquals(HttpStatus.OK.value(), send("10.0.0.1", "/api/public/categories").getStatus());
+    }
+
+    @Test
+    void rejectedRequestsDoNotReachTheChain() throws Exception {
+        signin("10.0.0.3");
+        signin("10.0.0.3");
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletRequest request = request("10.0.0.3", "/api/auth/signin");
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNull(chain.getRequest());
+
+        chain = new MockFilterChain();
+        request.setRemoteAddr("10.0.0.4");
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+    }
+
+    private MockHttpServletResponse signin(String remoteAddr) throws Exception {
+        return send(remoteAddr, "/api/auth/signin");
+    }
+
+    private MockHttpServletResponse send(String remoteAddr, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(remoteAddr, uri), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setServletPath(uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties.Group signin = new RateLimitProperties.Group();
+        signin.setPatterns(List.of("/api/auth/signin"));
+        signin.setCapacity(2);
+        signin.setRefillTokens(2);
+        signin.setRefillPeriod(Duration.ofMinutes(1));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put("signin", signin);
+        return properties;
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.project.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTests {
+    private static final long INTERVAL = 1_000;
+
+    @Test
+    void aFullBucketAllowsABurstOfCapacityThenWaitsOneInterval() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryConsume(0, INTERVAL, 5));
+        }
+        assertEquals(INTERVAL, bucket.tryConsume(0, INTERVAL, 5));
+        assertEquals(INTERVAL / 4, bucket.tryConsume(INTERVAL * 3 / 4, INTERVAL, 5));
+    }
+
+    @Test
+    void tokensRefillAtTheEmissionRateUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryConsume(0, INTERVAL, 5);
+        }
+        assertEquals(0, bucket.tryConsume(2 * INTERVAL, INTERVAL, 5));
+        assertEquals(0, bucket.tryConsume(2 * INTERVAL, INTERVAL, 5));
+        assertTrue(bucket.tryConsume(2 * INTERVAL, INTERVAL, 5) > 0);
+
+        // A long pause refills the bucket but never beyond one burst.
+        long later = 1_000 * INTERVAL;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryConsume(later, INTERVAL, 5));
+        }
+        assertTrue(bucket.tryConsume(later, INTERVAL, 5) > 0);
+        assertFalse(bucket.isIdle(later, 10 * INTERVAL));
+        assertTrue(bucket.isIdle(later + 20 * INTERVAL, 10 * INTERVAL));
+    }
+
+    @Test
+    void concurrentTakesNeverExceedTheBurst() throws Exception {
+        TokenBucket bucket = new TokenBucket(0);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int taken = 0;
+                    for (int j = 0; j < 1_000; j++) {
+                        if (bucket.tryConsume(0, INTERVAL, 100) == 0) {
+                            taken++;
+                        }
+                    }
+                    return taken;
+                }));
+            }
+            start.countDown();
+            int taken = 0;
+            for (Future<Integer> result : results) {
+                taken += result.get();
+            }
+            assertEquals(100, taken);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.CategoryDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.SuggestionDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "project.autocomplete.refresh-interval=1h")
+@ActiveProfiles("test")
+class AutocompleteServiceTests {
+
+    @Autowired
+    private AutocompleteServiceImpl autocompleteService;
+
+    @Autowired
+    private CatalogFixture catalog;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void followsCatalogWrites() {
+        String run = "Zq" + CatalogFixture.run();
+        CategoryDTO category = catalog.addCategory(run + " gadgets", null);
+        ProductDTO product = catalog.addProduct(category, run + " lamp");
+
+        // No rebuild: committed writes are served from the overlay straight away.
+        assertEquals(List.of(run + " gadgets", run + " lamp"), names(run.toLowerCase()));
+        assertEquals(List.of(run + " lamp"), names(run + " la"));
+
+        product.setProductName(run + " lantern");
+        productService.updateProduct(product.getProductId(), product);
+        assertEquals(List.of(run + " lantern"), names(run + " la"));
+        autocompleteService.rebuild();
+        assertEquals(List.of(run + " lantern"), names(run + " la"));
+        assertEquals(List.of(run + " gadgets", run + " lantern"), names(run));
+
+        productService.deleteProduct(product.getProductId());
+        assertEquals(List.of(run + " gadgets"), names(run));
+        assertTrue(names(run + " l").isEmpty());
+        autocompleteService.rebuild();
+        assertEquals(List.of(run + " gadgets"), names(run));
+        assertTrue(names(run + " l").isEmpty());
+    }
+
+    private List<String> names(String prefix) {
+        return autocompleteService.suggest(prefix, 20).stream().map(SuggestionDTO::getName).toList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.ecommerce.project.config.sql.SqlAssertions.assertMaxStatements;
+import static com.ecommerce.project.config.sql.SqlAssertions.assertNoRepeatedStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithUserDetails("user1")
+class CartFetchPlanTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Test
+    void cartFlowRunsOnExplicitFetchPlans() {
+        Category category = categoryRepository.save(new Category(null, "Fetch Plan Category", null));
+        Long first = product(category, "Fetch plan one");
+        Long second = product(category, "Fetch plan two");
+
+        // Creating the cart on the first add costs a second user lookup, hence the higher budget.
+        assertMaxStatements(6, () -> mockMvc.perform(post("/api/carts/products/{productId}/quantity/1", first))
+                .andExpect(status().isCreated()));
+        assertMaxStatements(4, () -> mockMvc.perform(post("/api/carts/products/{productId}/quantity/2", second))
+                .andExpect(status().isCreated()));
+        assertMaxStatements(3, () -> mockMvc.perform(get("/api/carts/users/cart"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(2)));
+        assertNoRepeatedStatements(2, () -> mockMvc.perform(put("/api/carts/products/{productId}/quantity/add", first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(2)));
+        assertMaxStatements(4, () -> mockMvc.perform(delete("/api/carts/{cartId}/product/{productId}", cartId(), second))
+                .andExpect(status().isOk()));
+        assertMaxStatements(3, () -> mockMvc.perform(get("/api/carts/users/cart"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(1)));
+        // Reading the cart shows line quantities without touching the products' stock.
+        assertEquals(10, productRepository.findById(first).orElseThrow().getQuantity());
+    }
+
+    private Long cartId() {
+        return cartRepository.findCartByEmail("user1@example.com").getId();
+    }
+
+    private Long product(Category category, String name) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription(name + " description");
+        product.setImage("default.png");
+        product.setQuantity(10);
+        product.setPrice(20);
+        product.setSpecialPrice(20);
+        product.setCategory(category);
+        return productRepository.save(product).getProductId();
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.payload.CategoryDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.repository.UserRepository;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Test data for tests sharing the one database: names carry a per-test run suffix instead of being cleaned up, so
+// the committed rows that concurrency tests need never collide between tests.
+@Component
+public class CatalogFixture {
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final CartRepository cartRepository;
+    private final CategoryService categoryService;
+    private final ProductService productService;
+    private final TransactionTemplate transactionTemplate;
+
+    public CatalogFixture(CategoryRepository categoryRepository, ProductRepository productRepository,
+                          UserRepository userRepository, CartRepository cartRepository,
+                          CategoryService categoryService, ProductService productService,
+                          PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.cartRepository = cartRepository;
+        this.categoryService = categoryService;
+        this.productService = productService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public static String run() {
+        return UUID.randomUUID().toString().substring(0, 6);
+    }
+
+    public Category category(String name) {
+        return categoryRepository.save(new Category(null, name, null));
+    }
+
+    public Product product(Category category, String name, int stock) {
+        return product(category, name, stock, 10, 10);
+    }
+
+    public Product product(Category category, String name, int stock, double price, double specialPrice) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription(name + " description");
+        product.setImage("default.png");
+        product.setQuantity(stock);
+        product.setPrice(price);
+        product.setSpecialPrice(specialPrice);
+        product.setCategory(category);
+        return productRepository.save(product);
+    }
+
+    // Through the services, so category counts, the closure table and autocomplete see the writes.
+    public CategoryDTO addCategory(String name, CategoryDTO parent) {
+        return categoryService.createCategory(new CategoryDTO(null, name,
+                parent == null ? null : parent.getCategoryId(), 0));
+    }
+
+    public ProductDTO addProduct(CategoryDTO category, String name) {
+        ProductDTO product = new ProductDTO();
+        product.setProductName(name);
+        product.setDescription(name + " description");
+        product.setQuantity(10);
+        product.setPrice(100);
+        return productService.addProduct(category.getCategoryId(), product);
+    }
+
+    // A user with username@example.com and a cart holding the lines at their special price, committed together.
+    public String shopper(String username, Line... lines) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.save(new User(username, username + "@example.com", "password"));
+            Cart cart = new Cart();
+            cart.setUser(user);
+            double total = 0;
+            for (Line line : lines) {
+                CartItem item = new CartItem();
+                item.setCart(cart);
+                item.setProduct(line.product());
+                item.setQuantity(line.quantity());
+                item.setPrice(line.product().getSpecialPrice());
+                item.setDiscount(line.product().getDiscount());
+                cart.getCartItems().add(item);
+                total += line.product().getSpecialPrice() * line.quantity();
+            }
+            cart.setTotalPrice(total);
+            cartRepository.save(cart);
+        });
+        return username;
+    }
+
+    public Long cartId(String username) {
+        return cartRepository.findCartByEmail(username + "@example.com").getId();
+    }
+
+    public static Line line(Product product, int quantity) {
+        return new Line(product, quantity);
+    }
+
+    public static <T> T as(String username, Supplier<T> action) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        try {
+            return action.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    public record Line(Product product, int quantity) {
+    }
+}
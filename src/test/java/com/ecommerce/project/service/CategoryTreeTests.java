@@ -0,0 +1,185 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.payload.CategoryDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.repository.CategoryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.ecommerce.project.config.sql.SqlAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CategoryTreeTests {
+
+    @Autowired
+    private CatalogFixture catalog;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String run;
+
+    @BeforeEach
+    void setUp() {
+        run = CatalogFixture.run();
+    }
+
+    @Test
+    void subtreeCountsAndSearchFollowTheTree() {
+        CategoryDTO electronics = category("Electronics", null);
+        CategoryDTO computers = category("Computers", electronics);
+        CategoryDTO laptops = category("Laptops", computers);
+        CategoryDTO clearance = category("Clearance", null);
+
+        assertEquals(computers.getCategoryId(), laptops.getParentCategoryId());
+        product("Speaker", electronics);
+        product("Ultrabook", laptops);
+        ProductDTO workstation = product("Workstation", laptops);
+
+        assertEquals(List.of(3L, 2L, 2L, 0L), counts(electronics, computers, laptops, clearance));
+        assertEquals(3, search(electronics, true).getTotalElements());
+        assertEquals(1, search(electronics, false).getTotalElements());
+        assertEquals(2, search(computers, true).getTotalElements());
+        assertMaxStatements(3, () -> search(electronics, true));
+        assertEquals(List.of(computers.getCategoryId()), categoryService.getSubcategories(electronics.getCategoryId())
+                .stream().map(CategoryDTO::getCategoryId).toList());
+
+        categoryService.moveCategory(computers.getCategoryId(), clearance.getCategoryId());
+
+        assertEquals(List.of(1L, 2L, 2L, 2L), counts(electronics, computers, laptops, clearance));
+        assertEquals(1, search(electronics, true).getTotalElements());
+        assertEquals(2, search(clearance, true).getTotalElements());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT depth FROM category_closure WHERE ancestor_id = ? AND descendant_id = ?",
+                Integer.class, clearance.getCategoryId(), laptops.getCategoryId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM category_closure WHERE ancestor_id = ?",
+                Integer.class, electronics.getCategoryId()));
+
+        productService.deleteProduct(workstation.getProductId());
+        assertEquals(List.of(1L, 1L, 1L, 1L), counts(electronics, computers, laptops, clearance));
+    }
+
+    @Test
+    void cyclesAndNonEmptyParentsAreRejected() {
+        CategoryDTO parent = category("Parent", null);
+        CategoryDTO child = category("Child", parent);
+        CategoryDTO grandchild = category("Grandchild", child);
+
+        assertThrows(APIException.class,
+                () -> categoryService.moveCategory(parent.getCategoryId(), grandchild.getCategoryId()));
+        assertThrows(APIException.class,
+                () -> categoryService.moveCategory(parent.getCategoryId(), parent.getCategoryId()));
+        assertThrows(APIException.class, () -> categoryService.deleteCategory(child.getCategoryId()));
+
+        product("Gadget", grandchild);
+        categoryService.deleteCategory(grandchild.getCategoryId());
+        categoryService.deleteCategory(child.getCategoryId());
+        assertEquals(List.of(0L), counts(parent));
+    }
+
+    @Test
+    void renamingKeepsTheParentAndMovingWithoutOneMakesARoot() {
+        CategoryDTO parent = category("Outdoor", null);
+        CategoryDTO child = category("Tents", parent);
+        product("Dome tent", child);
+
+        CategoryDTO renamed = categoryService.updateCategory(child.getCategoryId(),
+                new CategoryDTO(null, "Camping tents " + run, null, 0));
+
+        assertEquals(parent.getCategoryId(), renamed.getParentCategoryId());
+        assertEquals(List.of(1L, 1L), counts(parent, child));
+        assertEquals(1, search(parent, true).getTotalElements());
+
+        CategoryDTO moved = categoryService.moveCategory(child.getCategoryId(), null);
+
+        assertNull(moved.getParentCategoryId());
+        assertEquals(List.of(0L, 1L), counts(parent, child));
+        assertEquals(0, search(parent, true).getTotalElements());
+    }
+
+    @Test
+    void movesCarryTheCountTheDatabaseHoldsNotTheCachedOne() {
+        CategoryDTO shelf = category("Shelf", null);
+        CategoryDTO store = category("Store", null);
+        product("Lamp", shelf);
+        categoryRepository.findById(shelf.getCategoryId());
+        // Products added elsewhere, committed but not yet evicted from the second-level cache.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE category SET product_count = product_count + 2 WHERE category_id = ?", shelf.getCategoryId()));
+
+        categoryService.moveCategory(shelf.getCategoryId(), store.getCategoryId());
+
+        assertEquals(List.of(3L, 3L), counts(shelf, store));
+    }
+
+    @Test
+    void countChangesOnlyEvictTheCategoryAndItsAncestors() {
+        CategoryDTO home = category("Home", null);
+        CategoryDTO kitchen = category("Kitchen", home);
+        CategoryDTO garden = category("Garden", null);
+        List.of(home, kitchen, garden).forEach(category -> categoryRepository.findById(category.getCategoryId()));
+
+        product("Kettle", kitchen);
+
+        assertFalse(cached(home));
+        assertFalse(cached(kitchen));
+        assertTrue(cached(garden));
+    }
+
+    private CategoryDTO category(String name, CategoryDTO parent) {
+        return catalog.addCategory(name + " " + run, parent);
+    }
+
+    private ProductDTO product(String name, CategoryDTO category) {
+        return catalog.addProduct(category, name + " " + run);
+    }
+
+    private boolean cached(CategoryDTO category) {
+        return entityManagerFactory.getCache().contains(Category.class, category.getCategoryId());
+    }
+
+    private ProductResponse search(CategoryDTO category, boolean includeDescendants) {
+        return productService.searchByCategory(category.getCategoryId(), includeDescendants, 0, 50, "productId", "asc");
+    }
+
+    private List<Long> counts(CategoryDTO... categories) {
+        return Arrays.stream(categories)
+                .map(category -> jdbcTemplate.queryForObject("SELECT product_count FROM category WHERE category_id = ?",
+                        Long.class, category.getCategoryId()))
+                .toList();
+    }
+}
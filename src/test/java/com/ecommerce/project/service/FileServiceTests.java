@@ -0,0 +1,163 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.GlobalExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileServiceTests {
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 1, 2, 3};
+
+    @TempDir
+    Path directory;
+
+    private final List<String> generated = new ArrayList<>();
+    private final FileServiceImpl fileService = new FileServiceImpl(variants(generated), DataSize.ofKilobytes(64), 2,
+            Duration.ofSeconds(1));
+
+    @Test
+    void aBlobUploadedAgainIsNotDeletedByTheReleaseOfItsLastReference() throws IOException {
+        String first = upload(PNG);
+        fileService.unpinImage(first);
+
+        // The same bytes arrive for another product while the old reference's release is running.
+        String second = upload(PNG);
+        assertEquals(first, second);
+        assertFalse(fileService.deleteImageIfUnused(path(), first, () -> true));
+        assertTrue(Files.exists(directory.resolve(first)));
+
+        fileService.unpinImage(second);
+        assertFalse(fileService.deleteImageIfUnused(path(), first, () -> false));
+        assertTrue(Files.exists(directory.resolve(first)));
+        assertTrue(fileService.deleteImageIfUnused(path(), first, () -> true));
+        assertFalse(Files.exists(directory.resolve(first)));
+    }
+
+    @Test
+    void variantsAreGeneratedOnlyWhenTheBlobIsNew() throws IOException {
+        String filename = upload(PNG);
+        upload(PNG);
+        assertEquals(List.of(filename), generated);
+
+        fileService.unpinImage(filename);
+        fileService.unpinImage(filename);
+        fileService.deleteImageIfUnused(path(), filename, () -> true);
+        upload(PNG);
+        assertEquals(List.of(filename, filename), generated);
+    }
+
+    @Test
+    void uploadsAreCheckedByTheirBytesNotTheirName() throws IOException {
+        byte[] text = "<?php echo 'not an image';".getBytes(StandardCharsets.UTF_8);
+        assertThrows(APIException.class, () -> upload(text));
+        assertThrows(APIException.class, () -> fileService.uploadImage(path(),
+                new MockMultipartFile("image", "photo.png", "image/png", text)));
+        assertEquals(List.of(), files());
+
+        String filename = fileService.uploadImage(path(), new MockMultipartFile("image", "photo.txt", "text/plain", PNG));
+        assertTrue(filename.endsWith(".png"), filename);
+    }
+
+    @Test
+    void uploadsOverTheLimitAreRejectedWith413() throws IOException {
+        byte[] large = Arrays.copyOf(PNG, (int) DataSize.ofKilobytes(64).toBytes() + 1);
+        // Streamed bodies are counted as they arrive, multipart ones are refused up front by their declared size.
+        MaxUploadSizeExceededException streamed = assertThrows(MaxUploadSizeExceededException.class,
+                () -> upload(large));
+        assertThrows(MaxUploadSizeExceededException.class, () -> fileService.uploadImage(path(),
+                new MockMultipartFile("image", "large.png", "image/png", large)));
+        assertEquals(List.of(), files());
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE,
+                new GlobalExceptionHandler().handleMaxUploadSizeExceededException(streamed).getStatusCode());
+
+        upload(Arrays.copyOf(PNG, (int) DataSize.ofKilobytes(64).toBytes()));
+    }
+
+    @Test
+    void uploadsBeyondTheConcurrencyLimitGet503() throws Exception {
+        FileServiceImpl limited = new FileServiceImpl(variants(new ArrayList<>()), DataSize.ofKilobytes(64), 1,
+                Duration.ofMillis(50));
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream slow = new InputStream() {
+            @Override
+            public int read() {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return -1;
+            }
+        };
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> first = executor.submit(() -> limited.uploadImage(path(), slow));
+            reading.await();
+
+            ResponseStatusException busy = assertThrows(ResponseStatusException.class,
+                    () -> limited.uploadImage(path(), new ByteArrayInputStream(PNG)));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, busy.getStatusCode());
+
+            release.countDown();
+            assertThrows(ExecutionException.class, first::get);
+        }
+        limited.uploadImage(path(), new ByteArrayInputStream(PNG));
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private String upload(byte[] bytes) throws IOException {
+        return fileService.uploadImage(path(), new ByteArrayInputStream(bytes));
+    }
+
+    private String path() {
+        return directory.toString();
+    }
+
+    private static ImageVariantService variants(List<String> generated) {
+        return new ImageVariantService() {
+            @Override
+            public void generateVariants(String path, String filename) {
+                generated.add(filename);
+            }
+
+            @Override
+            public Map<String, String> variantUrls(String filename) {
+                return Map.of();
+            }
+        };
+    }
+}
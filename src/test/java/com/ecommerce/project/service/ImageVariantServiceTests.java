@@ -0,0 +1,104 @@
+package com.ecommerce.project.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ImageVariantServiceTests {
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private FileService fileService;
+
+    @Autowired
+    @Qualifier("imageVariantExecutor")
+    private ThreadPoolTaskExecutor imageVariantExecutor;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void variantsAreGeneratedOffTheCallingThread() throws Exception {
+        image("wide.png", 1600, 800);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < imageVariantExecutor.getMaxPoolSize(); i++) {
+            imageVariantExecutor.execute(() -> awaitQuietly(release));
+        }
+
+        imageVariantService.generateVariants(directory.toString(), "wide.png");
+        // Every worker is busy, so the call can only have queued the work.
+        assertFalse(Files.exists(directory.resolve(ImageVariant.THUMBNAIL.fileName("wide.png"))));
+        assertEquals(directory.resolve("wide.png"), fileService.resolveImage(directory.toString(), "wide-w150.png"));
+
+        release.countDown();
+        awaitIdle();
+        for (ImageVariant variant : ImageVariant.values()) {
+            Path file = directory.resolve(variant.fileName("wide.png"));
+            assertTrue(Files.exists(file), file.toString());
+            assertEquals(variant.getWidth(), ImageIO.read(file.toFile()).getWidth());
+            assertEquals(file, fileService.resolveImage(directory.toString(), variant.fileName("wide.png")));
+        }
+    }
+
+    @Test
+    void smallOrUnreadableOriginalsAreServedInsteadOfVariants() throws Exception {
+        image("small.png", 300, 200);
+        Files.write(directory.resolve("broken.png"), new byte[]{(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0});
+
+        imageVariantService.generateVariants(directory.toString(), "small.png");
+        imageVariantService.generateVariants(directory.toString(), "broken.png");
+        awaitIdle();
+
+        assertTrue(Files.exists(directory.resolve("small-w150.png")));
+        assertFalse(Files.exists(directory.resolve("small-w400.png")));
+        assertEquals(directory.resolve("small.png"), fileService.resolveImage(directory.toString(), "small-w400.png"));
+        assertEquals(directory.resolve("small.png"), fileService.resolveImage(directory.toString(), "small-w1080.png"));
+        for (ImageVariant variant : ImageVariant.values()) {
+            assertFalse(Files.exists(directory.resolve(variant.fileName("broken.png"))));
+            assertEquals(directory.resolve("broken.png"),
+                    fileService.resolveImage(directory.toString(), variant.fileName("broken.png")));
+        }
+    }
+
+    private void image(String filename, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ImageIO.write(image, "png", directory.resolve(filename).toFile());
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        ThreadPoolExecutor executor = imageVariantExecutor.getThreadPoolExecutor();
+        while (executor.getCompletedTaskCount() < executor.getTaskCount()) {
+            assertTrue(System.nanoTime() < deadline, "image variant executor did not go idle");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.GlobalExceptionHandler;
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.payload.APIResponse;
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.payload.OrderItemDTO;
+import com.ecommerce.project.repository.OrderRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ecommerce.project.service.CatalogFixture.as;
+import static com.ecommerce.project.service.CatalogFixture.line;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderCheckoutTests {
+    private static final int HOT_STOCK = 25;
+    private static final int COLD_STOCK = 10_000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CatalogFixture catalog;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String run;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        run = CatalogFixture.run();
+        category = catalog.category("Checkout " + run);
+    }
+
+    @Test
+    void checkoutIsIdempotentPerKey() {
+        Product product = catalog.product(category, "Idempotent " + run, 5);
+        String buyer = buyer(0, line(product, 2));
+
+        OrderDTO first = as(buyer, () -> orderService.placeOrder("key-" + run));
+        OrderDTO replay = as(buyer, () -> orderService.placeOrder("key-" + run));
+
+        assertEquals(first.getOrderId(), replay.getOrderId());
+        assertEquals(1, first.getOrderItems().size());
+        assertEquals(20.0, first.getTotalAmount());
+        assertEquals(3, stock(product));
+        assertEquals(3, productRepository.findById(product.getProductId()).orElseThrow().getQuantity());
+        assertEquals(0, cartItems(buyer));
+        assertThrows(APIException.class, () -> as(buyer, () -> orderService.placeOrder("other-" + run)));
+    }
+
+    @Test
+    void hotProductIsNeverOversoldUnderConcurrentCheckout() throws Exception {
+        Product hot = catalog.product(category, "Hot " + run, HOT_STOCK);
+        Product cold = catalog.product(category, "Cold " + run, COLD_STOCK);
+        int buyers = HOT_STOCK * 3;
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            usernames.add(buyer(i, line(hot, 1), line(cold, 2)));
+        }
+
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger outOfStock = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (String username : usernames) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        as(username, () -> orderService.placeOrder("checkout-" + username));
+                        placed.incrementAndGet();
+                    } catch (APIException e) {
+                        outOfStock.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        assertEquals(HOT_STOCK, placed.get());
+        assertEquals(buyers - HOT_STOCK, outOfStock.get());
+        assertEquals(0, stock(hot));
+        assertEquals(COLD_STOCK - HOT_STOCK * 2, stock(cold));
+        assertEquals(HOT_STOCK, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_item WHERE product_id = ?", Integer.class, hot.getProductId()));
+        // Buyers that missed out were rolled back completely and still have their cart.
+        long fullCarts = usernames.stream().filter(username -> cartItems(username) == 2).count();
+        assertEquals(buyers - HOT_STOCK, fullCarts);
+        assertTrue(usernames.stream().allMatch(username -> cartItems(username) == 0 || cartItems(username) == 2));
+    }
+
+    @Test
+    void discountedProductsAreChargedWhatTheCartShows() {
+        Product discounted = catalog.product(category, "Discounted " + run, 5, 10, 8);
+        Product fullPrice = catalog.product(category, "Full price " + run, 5);
+        String buyer = buyer(0, line(fullPrice, 1));
+        as(buyer, () -> cartService.addProductToCart(discounted.getProductId(), 3));
+        double cartTotal = jdbcTemplate.queryForObject("SELECT c.total_price FROM cart c " +
+                "JOIN users u ON u.user_id = c.user_id WHERE u.username = ?", Double.class, buyer);
+
+        OrderDTO order = as(buyer, () -> orderService.placeOrder("discount-" + run));
+
+        assertEquals(10.0 + 3 * 8.0, cartTotal);
+        assertEquals(cartTotal, order.getTotalAmount());
+        assertEquals(8.0, order.getOrderItems().stream()
+                .filter(item -> item.getProductId().equals(discounted.getProductId()))
+                .findFirst().orElseThrow().getOrderedProductPrice());
+    }
+
+    @Test
+    void orderedProductsCanBeDeletedAndTheirLinesKeepTheName() {
+        Product product = catalog.product(category, "Retired " + run, 5);
+        String buyer = buyer(0, line(product, 1));
+        as(buyer, () -> orderService.placeOrder("retired-" + run));
+
+        productService.deleteProduct(product.getProductId());
+
+        OrderItemDTO line = as(buyer, () -> orderService.placeOrder("retired-" + run)).getOrderItems().getFirst();
+        assertNull(line.getProductId());
+        assertEquals("Retired " + run, line.getProductName());
+        assertEquals(10.0, line.getOrderedProductPrice());
+    }
+
+    @Test
+    void onlyCheckoutKeyConflictsAskForARetry() {
+        Product product = catalog.product(category, "Conflict " + run, 5);
+        String buyer = buyer(0, line(product, 1));
+        as(buyer, () -> orderService.placeOrder("conflict-" + run));
+        User user = userRepository.findByUsername(buyer).orElseThrow();
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        Order duplicate = new Order();
+        duplicate.setUser(user);
+        duplicate.setEmail(user.getEmail());
+        duplicate.setCheckoutKey("conflict-" + run);
+        duplicate.setOrderDate(Instant.now());
+        duplicate.setTotalAmount(0.0);
+        duplicate.setOrderStatus("PLACED");
+        DataIntegrityViolationException sameKey = assertThrows(DataIntegrityViolationException.class,
+                () -> orderRepository.saveAndFlush(duplicate));
+        ResponseEntity<APIResponse> retry = handler.handleDataIntegrityViolationException(sameKey);
+        assertEquals(HttpStatus.CONFLICT, retry.getStatusCode());
+        assertTrue(retry.getBody().getMessage().contains("please retry"), retry.getBody().getMessage());
+
+        DataIntegrityViolationException sameUsername = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(new User(buyer, "other-" + run + "@example.com", "password")));
+        ResponseEntity<APIResponse> conflict = handler.handleDataIntegrityViolationException(sameUsername);
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+        assertFalse(conflict.getBody().getMessage().contains("retry"), conflict.getBody().getMessage());
+    }
+
+    private String buyer(int index, CatalogFixture.Line... cart) {
+        return catalog.shopper("b" + run + "-" + index, cart);
+    }
+
+    private int stock(Product product) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM product WHERE product_id = ?",
+                Integer.class, product.getProductId());
+    }
+
+    private int cartItems(String username) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_item ci JOIN cart c ON c.id = ci.cart_id " +
+                "JOIN users u ON u.user_id = c.user_id WHERE u.username = ?", Integer.class, username);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.RepricingResponse;
+import com.ecommerce.project.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ecommerce.project.service.CatalogFixture.line;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PricingServiceTests {
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private CatalogFixture catalog;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String run;
+    private Category category;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        run = CatalogFixture.run();
+        category = catalog.category("Pricing " + run);
+        products = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            products.add(catalog.product(category, "Priced " + run + " " + i, 100, i * 10, i * 10));
+        }
+    }
+
+    @Test
+    void categoryDiscountRepricesProductsAndCarts() {
+        Long cartId = cart(products.get(1), 2, products.get(3), 1);
+
+        RepricingResponse response = pricingService.discountCategory(category.getCategoryId(), 20);
+
+        assertEquals(5, response.getProductsRepriced());
+        assertEquals(2, response.getCartItemsRepriced());
+        for (Product product : products) {
+            Product repriced = productRepository.findById(product.getProductId()).orElseThrow();
+            assertEquals(20, repriced.getDiscount());
+            assertEquals(product.getPrice() * 0.8, repriced.getSpecialPrice(), 1e-9);
+        }
+        assertEquals(16.0 * 2 + 32.0, cartTotal(cartId), 1e-9);
+        assertEquals(16.0, jdbcTemplate.queryForObject("SELECT price FROM cart_item WHERE cart_id = ? AND product_id = ?",
+                Double.class, cartId, products.get(1).getProductId()), 1e-9);
+    }
+
+    @Test
+    void csvDiscountsOnlyTouchListedProducts() throws Exception {
+        Long cartId = cart(products.get(0), 1, products.get(4), 1);
+        String csv = "productId,discount\n" +
+                products.get(0).getProductId() + ",50\n" +
+                "\n" +
+                products.get(2).getProductId() + ", 10\n" +
+                products.get(0).getProductId() + ",25\n";
+
+        RepricingResponse response = pricingService.discountProducts(stream(csv));
+
+        assertEquals(2, response.getProductsRepriced());
+        assertEquals(1, response.getCartItemsRepriced());
+        assertEquals(7.5, specialPrice(products.get(0)), 1e-9);
+        assertEquals(27.0, specialPrice(products.get(2)), 1e-9);
+        assertEquals(50.0, specialPrice(products.get(4)), 1e-9);
+        assertEquals(7.5 + 50.0, cartTotal(cartId), 1e-9);
+    }
+
+    @Test
+    void invalidCsvChangesNothing() {
+        assertThrows(ResourceNotFoundException.class, () -> pricingService.discountProducts(
+                stream(products.get(0).getProductId() + ",10\n" + Long.MAX_VALUE + ",10\n")));
+        assertThrows(APIException.class, () -> pricingService.discountProducts(
+                stream(products.get(0).getProductId() + ",110\n")));
+        assertEquals(10.0, specialPrice(products.get(0)), 1e-9);
+    }
+
+    private Long cart(Product first, int firstQuantity, Product second, int secondQuantity) {
+        return catalog.cartId(catalog.shopper("p" + run, line(first, firstQuantity), line(second, secondQuantity)));
+    }
+
+    private double specialPrice(Product product) {
+        return jdbcTemplate.queryForObject("SELECT special_price FROM product WHERE product_id = ?",
+                Double.class, product.getProductId());
+    }
+
+    private double cartTotal(Long cartId) {
+        return jdbcTemplate.queryForObject("SELECT total_price FROM cart WHERE id = ?", Double.class, cartId);
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.RecommendationDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.ecommerce.project.config.sql.SqlAssertions.assertMaxStatements;
+import static com.ecommerce.project.service.CatalogFixture.as;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RecommendationServiceTests {
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CatalogFixture catalog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String run;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        run = CatalogFixture.run();
+        Category category = catalog.category("Together " + run);
+        products = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            products.add(catalog.product(category, "Together " + run + " " + i, 100));
+        }
+    }
+
+    @Test
+    void recommendsProductsSharingBasketsAndFollowsCartChanges() {
+        Product a = products.get(0);
+        Product b = products.get(1);
+        Product c = products.get(2);
+        Product d = products.get(3);
+        String first = shopper("1", a, b, c);
+        shopper("2", a, b);
+        String third = shopper("3", a, d);
+        recommendationService.rebuild();
+
+        assertEquals(List.of(b.getProductId(), c.getProductId(), d.getProductId()), recommended(a, 10));
+        assertEquals(2, recommendationService.getRecommendations(a.getProductId(), 1).getFirst().getScore());
+
+        as(third, () -> cartService.addProductToCart(c.getProductId(), 1));
+        as(third, () -> cartService.addProductToCart(b.getProductId(), 1));
+        cartService.deleteProductFromCart(catalog.cartId(first), b.getProductId());
+
+        // a-b: 2 + 1 - 1, a-c: 1 + 1, a-d: 1; equal scores are ordered by id.
+        assertEquals(List.of(b.getProductId(), c.getProductId(), d.getProductId()), recommended(a, 3));
+        assertEquals(List.of(2, 2, 1), recommendationService.getRecommendations(a.getProductId(), 3).stream()
+                .map(RecommendationDTO::getScore).toList());
+        assertEquals(List.of(a.getProductId(), c.getProductId(), d.getProductId()), recommended(b, 10));
+
+        // The model answers from memory and the recommended products are loaded together, even with a cold cache.
+        entityManagerFactory.getCache().evict(Product.class);
+        assertMaxStatements(2, () -> recommended(a, 10));
+        assertMaxStatements(1, () -> recommended(a, 10));
+    }
+
+    private List<Long> recommended(Product product, int limit) {
+        return recommendationService.getRecommendations(product.getProductId(), limit).stream()
+                .map(RecommendationDTO::getProductId)
+                .toList();
+    }
+
+    private String shopper(String suffix, Product... cartProducts) {
+        return catalog.shopper("r" + run + "-" + suffix, Arrays.stream(cartProducts)
+                .map(product -> CatalogFixture.line(product, 1))
+                .toArray(CatalogFixture.Line[]::new));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.CartItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.ecommerce.project.service.CatalogFixture.as;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = "project.recommendations.rebuild-interval=100ms")
+@ActiveProfiles("test")
+class ScheduledRebuildTests {
+
+    @MockitoSpyBean
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogFixture catalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final CountDownLatch rebuilding = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void flashSaleFlushKeepsRunningWhileARebuildIsSlow() throws Exception {
+        // The scheduled rebuild hangs on its first query until the test is done.
+        doAnswer(invocation -> {
+            rebuilding.countDown();
+            release.await();
+            return Stream.empty();
+        }).when(cartItemRepository).streamCartLines();
+        assertTrue(rebuilding.await(10, TimeUnit.SECONDS));
+
+        String run = CatalogFixture.run();
+        Category category = catalog.category("Rebuild " + run);
+        Product product = catalog.product(category, "Rebuild " + run, 10, 10, 8);
+        productService.updateFlashSale(product.getProductId(), true);
+        String buyer = catalog.shopper("r" + run);
+        as(buyer, () -> cartService.addProductToCart(product.getProductId(), 3));
+
+        // Only the scheduled flush writes the reservation, while the rebuild is still held.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (stock(product) != 7 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(7, stock(product));
+        assertEquals(1, release.getCount());
+    }
+
+    private int stock(Product product) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM product WHERE product_id = ?",
+                Integer.class, product.getProductId());
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.TrendingProductDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TrendingServiceTests {
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogFixture catalog;
+
+    @Test
+    void productViewsAndCartAddsRankTrendingProducts() {
+        String run = CatalogFixture.run();
+        Category category = catalog.category("Trending " + run);
+        Product viewed = catalog.product(category, "Viewed " + run, 10);
+        Product added = catalog.product(category, "Added " + run, 10);
+
+        for (int i = 0; i < 1000; i++) {
+            productService.getProduct(viewed.getProductId());
+        }
+        for (int i = 0; i < 300; i++) {
+            trendingService.recordAddedToCart(added.getProductId());
+        }
+
+        List<TrendingProductDTO> trending = trendingService.getTrending(2);
+        assertEquals(added.getProductId(), trending.get(0).getProductId());
+        assertEquals(viewed.getProductId(), trending.get(1).getProductId());
+        assertEquals(1500.0, trending.get(0).getScore(), 1.0);
+        assertEquals(viewed.getProductName(), trending.get(1).getProductName());
+    }
+}
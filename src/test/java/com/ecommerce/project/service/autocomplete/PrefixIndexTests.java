@@ -0,0 +1,90 @@
+package com.ecommerce.project.service.autocomplete;
+
+import com.ecommerce.project.service.autocomplete.PrefixIndex.Suggestion;
+import com.ecommerce.project.service.autocomplete.PrefixIndex.Type;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTests {
+
+    private final PrefixIndex index = PrefixIndex.builder()
+            .product(1, "Phone Case", 5)
+            .product(2, "Smart Phone", 30)
+            .product(3, "Photo Frame", 10)
+            .product(4, "Headphones", 50)
+            .product(5, "phone-phone charger", 20)
+            .category(6, "Phones", 40)
+            .build();
+
+    @Test
+    void matchesWordStartsCaseInsensitivelyByPopularity() {
+        assertEquals(List.of(6L, 2L, 5L, 1L), ids(index.suggest("PHON", 10)));
+        assertEquals(List.of(6L, 2L, 5L, 3L, 1L), ids(index.suggest(" ph", 10)));
+        assertEquals(List.of(6L, 2L), ids(index.suggest("phon", 2)));
+        assertEquals(Type.CATEGORY, index.suggest("phones", 1).getFirst().type());
+        assertEquals(List.of(5L), ids(index.suggest("charg", 10)));
+        assertEquals(List.of(4L), ids(index.suggest("headphones", 10)));
+        assertTrue(index.suggest("phones x", 10).isEmpty());
+        assertTrue(index.suggest("zz", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+        assertTrue(PrefixIndex.builder().build().suggest("a", 10).isEmpty());
+    }
+
+    @Test
+    void agreesWithAFullScanOnRandomNames() {
+        String[] words = {"red", "reading", "lamp", "lambda", "desk", "design", "delta", "redux", "leaf", "lean"};
+        Random random = new Random(7);
+        PrefixIndex.Builder builder = PrefixIndex.builder();
+        List<String> names = new ArrayList<>();
+        List<Integer> scores = new ArrayList<>();
+        for (int id = 1; id <= 2_000; id++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + id;
+            int score = random.nextInt(100);
+            names.add(name);
+            scores.add(score);
+            builder.product(id, name, score);
+        }
+        PrefixIndex randomIndex = builder.build();
+
+        for (String prefix : List.of("re", "red", "la", "lam", "d", "des", "lea", "1", "19", "redux 1")) {
+            List<Long> expected = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (matches(names.get(i), prefix)) {
+                    expected.add(i + 1L);
+                }
+            }
+            expected.sort(Comparator.comparing((Long id) -> -scores.get((int) (id - 1))));
+            List<Suggestion> actual = randomIndex.suggest(prefix, 15);
+            assertEquals(Math.min(15, expected.size()), actual.size(), prefix);
+            for (int i = 0; i < actual.size(); i++) {
+                assertEquals(scores.get((int) (expected.get(i) - 1)).intValue(), actual.get(i).popularity(), prefix);
+                assertTrue(matches(actual.get(i).name(), prefix), prefix);
+            }
+        }
+    }
+
+    private static boolean matches(String name, String prefix) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (int start = 0; start < lower.length(); start = lower.indexOf(' ', start) + 1) {
+            if (lower.startsWith(prefix, start)) {
+                return true;
+            }
+            if (lower.indexOf(' ', start) < 0) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static List<Long> ids(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::id).toList();
+    }
+}
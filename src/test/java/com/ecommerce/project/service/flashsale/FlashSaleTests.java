@@ -0,0 +1,222 @@
+package com.ecommerce.project.service.flashsale;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.service.CartService;
+import com.ecommerce.project.service.CatalogFixture;
+import com.ecommerce.project.service.OrderService;
+import com.ecommerce.project.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ecommerce.project.service.CatalogFixture.as;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FlashSaleTests {
+    private static final int STOCK = 20;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private FlashSaleInventory flashSaleInventory;
+
+    @Autowired
+    private CatalogFixture catalog;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String run;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        run = CatalogFixture.run();
+        Category category = catalog.category("Flash " + run);
+        product = catalog.product(category, "Flash " + run, STOCK, 10, 8);
+        productService.updateFlashSale(product.getProductId(), true);
+    }
+
+    @Test
+    void reservationsStopAtTheStockAndAreWrittenInBatches() throws Exception {
+        int shoppers = STOCK * 3;
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < shoppers; i++) {
+            usernames.add(shopper(i));
+        }
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (String username : usernames) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        as(username, () -> cartService.addProductToCart(product.getProductId(), 1));
+                        accepted.incrementAndGet();
+                    } catch (APIException e) {
+                        soldOut.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+        flashSaleInventory.flush();
+
+        assertEquals(STOCK, accepted.get());
+        assertEquals(shoppers - STOCK, soldOut.get());
+        assertEquals(0, flashSaleInventory.available(product.getProductId()));
+        assertEquals(0, stock());
+        assertEquals(STOCK, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_item WHERE product_id = ? AND reserved = true", Integer.class,
+                product.getProductId()));
+        assertEquals(8.0 * STOCK, jdbcTemplate.queryForObject(
+                "SELECT SUM(c.total_price) FROM cart c JOIN cart_item ci ON ci.cart_id = c.id WHERE ci.product_id = ?",
+                Double.class, product.getProductId()));
+    }
+
+    @Test
+    void checkoutDoesNotTakeReservedStockTwiceAndRemovalGivesItBack() {
+        String buyer = shopper(0);
+        String quitter = shopper(1);
+        as(buyer, () -> cartService.addProductToCart(product.getProductId(), 2));
+        as(quitter, () -> cartService.addProductToCart(product.getProductId(), 3));
+        assertThrows(APIException.class, () -> as(quitter, () -> cartService.addProductToCart(product.getProductId(), 1)));
+        flashSaleInventory.flush();
+        assertEquals(STOCK - 5, stock());
+
+        OrderDTO order = as(buyer, () -> orderService.placeOrder("flash-" + run));
+        assertEquals(STOCK - 5, stock());
+        assertEquals(2 * 8.0, order.getTotalAmount());
+
+        Long cartId = catalog.cartId(quitter);
+        cartService.deleteProductFromCart(cartId, product.getProductId());
+        assertEquals(STOCK - 2, stock());
+        assertEquals(STOCK - 2, flashSaleInventory.available(product.getProductId()));
+
+        productService.updateFlashSale(product.getProductId(), false);
+        assertEquals(-1, flashSaleInventory.available(product.getProductId()));
+    }
+
+    @Test
+    void aReservationRacingAWrittenLineIsDroppedByTheUniqueLine() {
+        String buyer = shopper(0);
+        as(buyer, () -> cartService.addProductToCart(product.getProductId(), 2));
+        Long cartId = catalog.cartId(buyer);
+        // The flush writes the line and drops its claim while a second add still holds the cart loaded before it.
+        flashSaleInventory.flush();
+
+        Boolean reserved = new TransactionTemplate(transactionManager).execute(
+                status -> flashSaleInventory.reserve(cartId, product, 1));
+        assertTrue(reserved);
+        flashSaleInventory.flush();
+
+        assertEquals(STOCK - 2, stock());
+        assertEquals(STOCK - 2, flashSaleInventory.available(product.getProductId()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_item WHERE cart_id = ? AND product_id = ?",
+                Integer.class, cartId, product.getProductId()));
+        assertEquals(2 * 8.0, jdbcTemplate.queryForObject("SELECT total_price FROM cart WHERE id = ?",
+                Double.class, cartId));
+        assertEquals(List.of(), cartService.getCart(buyer + "@example.com", cartId).getNotices());
+    }
+
+    @Test
+    void reloadingTheCounterCountsReservationsStillInFlight() {
+        String buyer = shopper(0);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            as(buyer, () -> cartService.addProductToCart(product.getProductId(), 4));
+            // An admin edit reloads the counter before the reserving transaction has completed.
+            flashSaleInventory.start(product.getProductId());
+        });
+
+        assertEquals(STOCK - 4, flashSaleInventory.available(product.getProductId()));
+        flashSaleInventory.flush();
+        assertEquals(STOCK - 4, stock());
+        assertEquals(STOCK - 4, flashSaleInventory.available(product.getProductId()));
+    }
+
+    @Test
+    void reservationTheDatabaseRefusesIsReportedOnTheCart() {
+        String buyer = shopper(0);
+        // Stock taken behind the counters' back, so the accepted reservation cannot be written.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE product SET quantity = 1 WHERE product_id = ?", product.getProductId()));
+        as(buyer, () -> cartService.addProductToCart(product.getProductId(), 3));
+
+        flashSaleInventory.flush();
+
+        Long cartId = catalog.cartId(buyer);
+        CartDTO cart = cartService.getCart(buyer + "@example.com", cartId);
+        assertEquals(0, cart.getProducts().size());
+        assertEquals(1, cart.getNotices().size());
+        assertTrue(cart.getNotices().get(0).contains(product.getProductName()), cart.getNotices().get(0));
+        assertEquals(List.of(), cartService.getCart(buyer + "@example.com", cartId).getNotices());
+        assertEquals(1, stock());
+        assertEquals(1, flashSaleInventory.available(product.getProductId()));
+    }
+
+    @Test
+    void staleCartSaveCannotOverwriteAReservedTotal() {
+        String buyer = shopper(0);
+        Cart stale = cartRepository.findCartByEmail(buyer + "@example.com");
+        as(buyer, () -> cartService.addProductToCart(product.getProductId(), 2));
+        flashSaleInventory.flush();
+
+        stale.setTotalPrice(stale.getTotalPrice() + 1);
+        assertThrows(OptimisticLockingFailureException.class, () -> cartRepository.save(stale));
+        assertEquals(2 * 8.0, jdbcTemplate.queryForObject("SELECT total_price FROM cart WHERE id = ?",
+                Double.class, stale.getId()));
+    }
+
+    private String shopper(int index) {
+        return catalog.shopper("f" + run + "-" + index);
+    }
+
+    private int stock() {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM product WHERE product_id = ?",
+                Integer.class, product.getProductId());
+    }
+}
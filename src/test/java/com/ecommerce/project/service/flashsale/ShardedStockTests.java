@@ -0,0 +1,62 @@
+package com.ecommerce.project.service.flashsale;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedStockTests {
+
+    @Test
+    void concurrentTakersNeverExceedTheStock() throws Exception {
+        ShardedStock stock = new ShardedStock(10_000, 8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16; i++) {
+                int amount = i % 3 + 1;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int taken = 0;
+                    while (stock.tryTake(amount)) {
+                        taken += amount;
+                    }
+                    return taken;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get();
+            }
+            assertTrue(total <= 10_000);
+            assertEquals(10_000, total + stock.available());
+        }
+        // Whatever is left is smaller than the largest request, so single units still drain it.
+        while (stock.tryTake(1)) {
+        }
+        assertEquals(0, stock.available());
+    }
+
+    @Test
+    void takeGathersStockSpreadOverShards() {
+        ShardedStock stock = new ShardedStock(8, 8);
+
+        assertTrue(stock.tryTake(5));
+        assertEquals(3, stock.available());
+        assertFalse(stock.tryTake(4));
+        assertEquals(3, stock.available());
+
+        stock.release(4);
+        assertTrue(stock.tryTake(7));
+        assertEquals(0, stock.available());
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.project.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIntHashMapTests {
+
+    @Test
+    void behavesLikeAHashMapUnderRandomAddsAndRemovals() {
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            int delta = random.nextInt(3) == 0 ? -1 - random.nextInt(3) : 1;
+            int value = map.addTo(key, delta);
+            int previous = expected.getOrDefault(key, 0);
+            if (previous + delta > 0) {
+                expected.put(key, previous + delta);
+                assertEquals(previous + delta, value);
+            } else {
+                expected.remove(key);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void collidingKeysSurviveRemovalOfEarlierEntries() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (long key = 1; key <= 64; key++) {
+            map.addTo(key * 1024, (int) key);
+        }
+        for (long key = 1; key <= 64; key += 2) {
+            map.addTo(key * 1024, -1000);
+        }
+
+        assertEquals(32, map.size());
+        for (long key = 1; key <= 64; key++) {
+            assertEquals(key % 2 == 0 ? (int) key : 0, map.get(key * 1024));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.project.service.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrendingSketchTests {
+
+    @Test
+    void heavyHittersStandOutOfALongTailInBoundedMemory() {
+        TrendingSketch sketch = new TrendingSketch(1024, 4, 20);
+        long tail = 1_000_000;
+        for (int round = 0; round < 1000; round++) {
+            for (long product = 1; product <= 10; product++) {
+                sketch.add(product, product);
+            }
+            for (int i = 0; i < 200; i++) {
+                sketch.add(tail++, 1);
+            }
+            assertTrue(sketch.candidates() <= 40, "candidates: " + sketch.candidates());
+        }
+
+        List<TrendingSketch.Score> top = sketch.top(10);
+        assertEquals(LongStream.rangeClosed(1, 10).map(i -> 11 - i).boxed().toList(),
+                top.stream().map(TrendingSketch.Score::productId).toList());
+        for (TrendingSketch.Score score : top) {
+            assertTrue(score.estimate() >= score.productId() * 1000);
+        }
+    }
+
+    @Test
+    void concurrentAddsAreNotLostAndDecayIsExponential() throws Exception {
+        TrendingSketch sketch = new TrendingSketch(256, 4, 10);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 10_000; j++) {
+                        sketch.add(42, 4);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+        assertEquals(320_000, sketch.estimate(42));
+
+        sketch.decay(0.5);
+        assertEquals(160_000, sketch.estimate(42));
+        assertEquals(List.of(new TrendingSketch.Score(42, 160_000)), sketch.top(5));
+
+        sketch.decay(0);
+        assertEquals(List.of(), sketch.top(5));
+        assertEquals(0, sketch.candidates());
+    }
+}